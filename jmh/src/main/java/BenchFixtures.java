@@ -0,0 +1,89 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.function.IntSupplier;
+
+/**
+ * Bridge between the JMH benchmarks and the game's package-private classes.
+ * JMH refuses benchmarks in the unnamed package, and named packages cannot
+ * see the game classes, so each fixture is built here and handed back as a
+ * plain IntSupplier that the benchmark calls once per operation.
+ */
+public final class BenchFixtures {
+    private BenchFixtures() {}
+
+    private static final InputFrame IDLE = new InputFrame();
+
+    // One simulation tick on the given level with an idle frog (cannot die on the start row)
+    public static IntSupplier tick(int level, long seed) {
+        GameSimulation sim = atLevel(level, seed);
+        warm(sim, IDLE, 600);
+        return () -> {
+            sim.step(IDLE);
+            if (sim.isOver() || sim.inTransition() || sim.level() != level) sim.startAtLevel(level);
+            return sim.ticks();
+        };
+    }
+
+    // Gap resolution alone over Level 3's road lanes packed with perLane vehicles each
+    public static IntSupplier denseGaps(int perLane, long seed) {
+        GameSimulation sim = atLevel(3, seed);
+        java.util.Random rnd = new java.util.Random(seed);
+        for (int lane = 0; lane < sim.roadLaneCount(); lane++) {
+            for (int i = 0; i < perLane; i++) {
+                sim.addVehicle(lane, i * GameSimulation.TILE + rnd.nextInt(GameSimulation.TILE), rnd.nextInt(3) == 0);
+            }
+        }
+        return () -> {
+            sim.resolveVehicleGapsSingleTrack();
+            return sim.vehicleCount();
+        };
+    }
+
+    // Projectile-vs-critter queries alone: shots placed at random over a full
+    // Level 2 critter population; nothing moves, nothing is killed
+    public static IntSupplier shotQueries(int shots, long seed) {
+        GameSimulation sim = atLevel(2, seed);
+        for (int i = 0; i < 600 && sim.critterCount() < 20; i++) sim.step(IDLE);
+        java.util.Random rnd = new java.util.Random(seed);
+        for (int i = 0; i < shots; i++)
+            sim.addShotAt(rnd.nextInt(GameSimulation.WIDTH), GameSimulation.TILE + rnd.nextInt(GameSimulation.HEIGHT - 2 * GameSimulation.TILE));
+        return sim::shotHits;
+    }
+
+    // paintComponent for the given level into an offscreen image
+    public static IntSupplier paint(int level, long seed) {
+        GameSimulation sim = atLevel(level, seed);
+        warm(sim, IDLE, 300);
+        GamePanel panel = new GamePanel("bench", null, sim);
+        BufferedImage img = new BufferedImage(GamePanel.WIDTH, GamePanel.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        return () -> {
+            panel.paintComponent(g);
+            return img.getRGB(GamePanel.WIDTH / 2, GamePanel.HEIGHT / 2);
+        };
+    }
+
+    // The same, with the playfield drawn by SoftRaster on its default worker count
+    public static IntSupplier paintSoftware(int level, long seed) {
+        GameSimulation sim = atLevel(level, seed);
+        warm(sim, IDLE, 300);
+        GamePanel panel = new GamePanel("bench", null, sim);
+        panel.useSoftRaster(SoftRaster.threadsWanted());
+        BufferedImage img = new BufferedImage(GamePanel.WIDTH, GamePanel.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        return () -> {
+            panel.paintComponent(g);
+            return img.getRGB(GamePanel.WIDTH / 2, GamePanel.HEIGHT / 2);
+        };
+    }
+
+    private static GameSimulation atLevel(int level, long seed) {
+        GameSimulation sim = new GameSimulation(seed);
+        sim.startAtLevel(level);
+        return sim;
+    }
+
+    private static void warm(GameSimulation sim, InputFrame in, int ticks) {
+        for (int i = 0; i < ticks; i++) sim.step(in);
+    }
+}
@@ -0,0 +1,30 @@
+package frogger.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line, but
+ * defaults to JSON results in jmh-result.json so release runs can be diffed,
+ * and to the GC profiler so every run records allocated bytes per op
+ * (gc.alloc.rate.norm) next to the timings.
+ */
+public final class BenchMain {
+    private BenchMain() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (cli.getProfilers().isEmpty()) builder.addProfiler(GCProfiler.class);
+        Options opts = builder
+                .parent(cli)
+                .resultFormat(cli.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(cli.getResult().orElse("jmh-result.json"))
+                .build();
+        new Runner(opts).run();
+    }
+}
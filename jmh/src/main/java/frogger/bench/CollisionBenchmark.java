@@ -0,0 +1,27 @@
+package frogger.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+// The shot pass's projectile-vs-critter queries on their own, over a full Level 2 critter population
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    @Param({"16", "64", "256"})
+    public int shots;
+
+    private IntSupplier op;
+
+    @Setup
+    public void setup() { op = Fixtures.get("shotQueries", shots, 42L); }
+
+    @Benchmark
+    public int shotQueries() { return op.getAsInt(); }
+}
@@ -0,0 +1,20 @@
+package frogger.bench;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Looks up a fixture on the unnamed-package BenchFixtures bridge.
+ * Reflection happens once per trial in @Setup, never inside a measured operation.
+ */
+final class Fixtures {
+    private Fixtures() {}
+
+    static IntSupplier get(String name, int arg, long seed) {
+        try {
+            Class<?> bridge = Class.forName("BenchFixtures");
+            return (IntSupplier) bridge.getMethod(name, int.class, long.class).invoke(null, arg, seed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("fixture " + name + " unavailable", e);
+        }
+    }
+}
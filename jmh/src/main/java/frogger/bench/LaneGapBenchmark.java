@@ -0,0 +1,27 @@
+package frogger.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+// resolveVehicleGapsSingleTrack over densely packed road lanes
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class LaneGapBenchmark {
+
+    @Param({"4", "12"})
+    public int vehiclesPerLane;
+
+    private IntSupplier op;
+
+    @Setup
+    public void setup() { op = Fixtures.get("denseGaps", vehiclesPerLane, 42L); }
+
+    @Benchmark
+    public int resolveGaps() { return op.getAsInt(); }
+}
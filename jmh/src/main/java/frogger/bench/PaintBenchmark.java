@@ -0,0 +1,30 @@
+package frogger.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+// GamePanel.paintComponent into an offscreen BufferedImage, playfield by Java2D or by SoftRaster
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class PaintBenchmark {
+
+    @Param({"1", "2", "3", "4"})
+    public int level;
+
+    @Param({"java2d", "software"})
+    public String raster;
+
+    private IntSupplier op;
+
+    @Setup
+    public void setup() { op = Fixtures.get(raster.equals("software") ? "paintSoftware" : "paint", level, 42L); }
+
+    @Benchmark
+    public int paint() { return op.getAsInt(); }
+}
@@ -0,0 +1,27 @@
+package frogger.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+// One fixed simulation tick per level
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TickBenchmark {
+
+    @Param({"1", "2", "3", "4"})
+    public int level;
+
+    private IntSupplier op;
+
+    @Setup
+    public void setup() { op = Fixtures.get("tick", level, 42L); }
+
+    @Benchmark
+    public int tick() { return op.getAsInt(); }
+}
@@ -0,0 +1,160 @@
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active rendering onto a Canvas through a BufferStrategy, from its own
+ * thread, instead of repaint() requests coalesced by the RepaintManager.
+ * Frames are drawn and shown at the display's refresh rate (or
+ * -Dfrogger.fps), interpolating between ticks, so 120/144 Hz screens get
+ * evenly paced frames. When the painter has nothing new (paused, between
+ * levels) no frame is drawn, apart from a redraw every IDLE_REDRAW_NANOS:
+ * the canvas ignores expose events, so that is what repairs an uncovered window.
+ *
+ * Config (system properties):
+ *   frogger.render=active   enable (default is the Swing paint path)
+ *   frogger.buffers=2|3     back buffers (default 3)
+ *   frogger.vsync=true      ask for vsync'd flips; needs
+ *                           --add-exports java.desktop/sun.java2d.pipe.hw=ALL-UNNAMED,
+ *                           otherwise ignored
+ *   frogger.fps=N           present rate when not vsync'd (default: display refresh)
+ * If the strategy cannot be created, onFailure runs and the view falls back to Swing.
+ */
+final class ActiveRenderer implements Runnable {
+
+    interface Painter {
+        // draw the newest frame; called on the render thread only
+        void paintFrame(Graphics2D g);
+        // whether the next frame would differ from the last one drawn; render thread only
+        boolean frameChanged();
+    }
+
+    private static final long IDLE_REDRAW_NANOS = 250_000_000L;
+
+    static boolean requested() {
+        return "active".equalsIgnoreCase(System.getProperty("frogger.render"))
+                && !GraphicsEnvironment.isHeadless();
+    }
+
+    private final Canvas canvas;
+    private final Painter painter;
+    private final Runnable onFailure;
+    private final int buffers = Math.max(2, Math.min(3, Integer.getInteger("frogger.buffers", 3)));
+    private final boolean vsync = Boolean.getBoolean("frogger.vsync");
+    private volatile boolean running = false;
+    private Thread thread;
+
+    ActiveRenderer(Canvas canvas, Painter painter, Runnable onFailure) {
+        this.canvas = canvas;
+        this.painter = painter;
+        this.onFailure = onFailure;
+        canvas.setIgnoreRepaint(true);
+    }
+
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "frogger-render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    synchronized void stop() {
+        running = false;
+        if (thread == null) return;
+        LockSupport.unpark(thread);
+        if (thread != Thread.currentThread()) {
+            try { thread.join(250); }
+            catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        thread = null;
+    }
+
+    @Override public void run() {
+        // The canvas gets its peer once the panel is added to a showing frame
+        while (running && !canvas.isDisplayable()) LockSupport.parkNanos(5_000_000L);
+        if (!running) return;
+
+        BufferStrategy bs;
+        try {
+            bs = createStrategy();
+        } catch (RuntimeException e) {
+            running = false;
+            EventQueue.invokeLater(onFailure);
+            return;
+        }
+
+        long period = 1_000_000_000L / targetHz();
+        long next = System.nanoTime();
+        long shown = next - IDLE_REDRAW_NANOS;
+        try {
+            while (running && canvas.isDisplayable()) {
+                if (!painter.frameChanged() && System.nanoTime() - shown < IDLE_REDRAW_NANOS) {
+                    next = pace(next, period);
+                    continue;
+                }
+                do {
+                    do {
+                        Graphics2D g = (Graphics2D) bs.getDrawGraphics();
+                        try { painter.paintFrame(g); }
+                        finally { g.dispose(); }
+                    } while (bs.contentsRestored());
+                    bs.show();
+                } while (bs.contentsLost());
+                Toolkit.getDefaultToolkit().sync();
+                shown = System.nanoTime();
+
+                // Vsync'd flips already block in show(); otherwise hold the display's cadence
+                next = pace(next, period);
+            }
+        } catch (IllegalStateException e) {
+            // Canvas removed while showing: the panel is going away
+        } finally {
+            bs.dispose();
+        }
+    }
+
+    // Sleeps until the next frame slot; a late frame restarts the cadence from now
+    private static long pace(long next, long period) {
+        next += period;
+        long wait = next - System.nanoTime();
+        if (wait > 0) LockSupport.parkNanos(wait);
+        else next = System.nanoTime();
+        return next;
+    }
+
+    // Page flipping when the pipeline supports it, else blits; vsync is best effort
+    private BufferStrategy createStrategy() {
+        BufferCapabilities flip = new BufferCapabilities(
+                new ImageCapabilities(true), new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED);
+        BufferCapabilities caps = vsync ? withVsync(flip) : flip;
+        try {
+            canvas.createBufferStrategy(buffers, caps);
+        } catch (AWTException e) {
+            canvas.createBufferStrategy(buffers);
+        }
+        return canvas.getBufferStrategy();
+    }
+
+    private static BufferCapabilities withVsync(BufferCapabilities base) {
+        try {
+            Class<?> ext = Class.forName("sun.java2d.pipe.hw.ExtendedBufferCapabilities");
+            Class<?> type = Class.forName("sun.java2d.pipe.hw.ExtendedBufferCapabilities$VSyncType");
+            Constructor<?> ctor = ext.getConstructor(BufferCapabilities.class, type);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Object on = Enum.valueOf((Class) type, "VSYNC_ON");
+            return (BufferCapabilities) ctor.newInstance(base, on);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return base;
+        }
+    }
+
+    private int targetHz() {
+        Integer fps = Integer.getInteger("frogger.fps");
+        if (fps != null && fps > 0) return fps;
+        GraphicsConfiguration gc = canvas.getGraphicsConfiguration();
+        int hz = (gc != null) ? gc.getDevice().getDisplayMode().getRefreshRate() : DisplayMode.REFRESH_RATE_UNKNOWN;
+        return hz > 0 ? hz : GameLoop.TICKS_PER_SECOND;
+    }
+}
@@ -1,8 +1,6 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.List;
 
@@ -40,6 +38,7 @@ public class App extends JFrame implements GamePanel.GameListener {
     // GameListener callbacks
     @Override public void onGameOver(int finalScore, String player) {
         ScoreManager.get().add(player, finalScore);
+        if (Flight.ON) new Thread(() -> Flight.dump("gameover"), "frogger-jfr-dump").start();
         scorePanel.refresh();
         cards.show(root, "score");
         disposeGamePanel();
@@ -86,6 +85,30 @@ public class App extends JFrame implements GamePanel.GameListener {
         setLocationRelativeTo(null);
     }
 
+    // Plays a recording (-Dfrogger.replay=<file>) at normal speed; nothing is scored
+    private void startReplay(java.nio.file.Path file) {
+        InputLog log;
+        try {
+            log = InputLog.read(file);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Cannot replay " + file + ": " + e.getMessage());
+            return;
+        }
+        disposeGamePanel();
+        gamePanel = GamePanel.replay(log, new GamePanel.GameListener() {
+            @Override public void onGameOver(int finalScore, String player) {
+                System.out.println("replay: final score " + finalScore + " (recorded " + log.finalScore() + ")");
+                App.this.onBackToMenu();
+            }
+            @Override public void onBackToMenu() { App.this.onBackToMenu(); }
+        });
+        root.add(gamePanel, "game");
+        cards.show(root, "game");
+        gamePanel.start();
+        pack();
+        setLocationRelativeTo(null);
+    }
+
     // Menu Panel
     // ===== Menu Panel =====
 private class MenuPanel extends JPanel {
@@ -149,19 +172,38 @@ private class MenuPanel extends JPanel {
 
     // Scoreboard Panel 
     private class ScorePanel extends JPanel {
-        private final DefaultTableModel model = new DefaultTableModel(new Object[]{"Player","Score","When"}, 0) {
-            @Override public boolean isCellEditable(int r, int c){ return false; }
-        };
+        private final ScoreTableModel model = new ScoreTableModel((b, from, to) -> ScoreManager.get().page(b, from, to));
         private final JTable table = new JTable(model);
+        private final JComboBox<ScoreManager.Range> range = new JComboBox<>(ScoreManager.Range.values());
+        private final JCheckBox perPlayer = new JCheckBox("Best per player");
+        private final JTextField player = new JTextField(10);
+        private final JLabel title = new JLabel("Scoreboard", SwingConstants.CENTER);
 
         ScorePanel() {
             setLayout(new BorderLayout());
             setPreferredSize(new Dimension(GamePanel.WIDTH, GamePanel.HEIGHT));
             setBackground(new Color(22,18,32));
 
-            JLabel h = new JLabel("Scoreboard", SwingConstants.CENTER);
-            h.setForeground(Color.WHITE);
-            h.setFont(h.getFont().deriveFont(Font.BOLD, 24f));
+            title.setForeground(Color.WHITE);
+            title.setFont(title.getFont().deriveFont(Font.BOLD, 24f));
+
+            // Filters: time window, one row per player, one player's games
+            JPanel filters = new JPanel();
+            filters.setOpaque(false);
+            range.setSelectedItem(ScoreManager.Range.ALL);
+            range.addActionListener(e -> refresh());
+            perPlayer.setOpaque(false);
+            perPlayer.setForeground(Color.WHITE);
+            perPlayer.addActionListener(e -> refresh());
+            player.addActionListener(e -> refresh());
+            JLabel pl = new JLabel("Player:");
+            pl.setForeground(Color.WHITE);
+            filters.add(range); filters.add(perPlayer); filters.add(pl); filters.add(player);
+
+            JPanel north = new JPanel(new BorderLayout());
+            north.setOpaque(false);
+            north.add(title, BorderLayout.NORTH);
+            north.add(filters, BorderLayout.SOUTH);
 
             JScrollPane sp = new JScrollPane(table);
             table.setFillsViewportHeight(true);
@@ -179,99 +221,148 @@ private class MenuPanel extends JPanel {
             });
             buttons.add(back); buttons.add(clear);
 
-            add(h, BorderLayout.NORTH);
+            add(north, BorderLayout.NORTH);
             add(sp, BorderLayout.CENTER);
             add(buttons, BorderLayout.SOUTH);
         }
 
         void refresh() {
-            model.setRowCount(0);
-            for (Score s : ScoreManager.get().top(50)) {
-                model.addRow(new Object[]{s.player, s.score, s.when});
+            // Still reading the log: show an empty board and come back, after
+            // anything queued before this (a score to add, a clear), once it is open
+            if (!ScoreManager.get().isOpen()) {
+                title.setText("Scoreboard (loading...)");
+                model.set(null);
+                ScoreManager.get().whenOpen(this::refresh);
+                return;
             }
+            title.setText("Scoreboard");
+            String name = player.getText().trim();
+            model.set(ScoreManager.get().board((ScoreManager.Range) range.getSelectedItem(),
+                    name.isEmpty() ? null : name, perPlayer.isSelected()));
         }
     }
 
     //  Score storage 
-    static class Score {
-        final String player;
-        final int score;
-        final String when;
-        Score(String p, int s, String w){ this.player=p; this.score=s; this.when=w; }
-    }
-
     static class ScoreManager {
+        // Rows a scoreboard query returns at most; the table pages through them
+        static final int BOARD_ROWS = 1000;
+
+        enum Range {
+            TODAY("Today"), WEEK("This week"), ALL("All time");
+
+            private final String label;
+            Range(String label) { this.label = label; }
+            @Override public String toString() { return label; }
+
+            // Epoch millis the window starts at, in the local calendar
+            long since() {
+                java.time.LocalDate d = java.time.LocalDate.now();
+                switch (this) {
+                    case TODAY: break;
+                    case WEEK:
+                        d = d.with(java.time.temporal.TemporalAdjusters.previousOrSame(
+                                java.time.temporal.WeekFields.of(Locale.getDefault()).getFirstDayOfWeek()));
+                        break;
+                    default: return Long.MIN_VALUE;
+                }
+                return d.atStartOfDay(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+        }
+
         private static final ScoreManager INSTANCE = new ScoreManager();
         public static ScoreManager get(){ return INSTANCE; }
 
-        private final File file = new File("scores.csv");
+        private final File file = new File("scores.csv");        // legacy text history, imported once
+        private final java.nio.file.Path log = java.nio.file.Paths.get("scores.dat");
+
+        // Import and open run on their own thread so the EDT never waits on the
+        // disk. Until that is done, add and clear queue up in call order and run
+        // on the EDT when it finishes; board and page come back empty. Pruning old
+        // games is left to the operator (ScoreTool compact)
+        private ScoreStore store;                                 // null if the log cannot be opened
+        private ScoreWriter writer;
+        private boolean open = false;                             // EDT only, like waiting
+        private final List<Runnable> waiting = new java.util.ArrayList<>();
+
+        private ScoreManager() {
+            Thread opener = new Thread(this::open, "frogger-scores-open");
+            opener.setDaemon(true);
+            opener.start();
+        }
+
+        private void open() {
+            try {
+                if (!java.nio.file.Files.exists(log) && file.exists()) importCsv();
+                store = ScoreStore.openIndexed(log);
+                // Appends go through the writer thread; the hook drains it on exit
+                writer = ScoreWriter.fromProperties(store);
+                Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "frogger-score-drain"));
+            } catch (IOException e) {
+                System.err.println("scores: " + e.getMessage());
+            } finally {
+                // invokeLater hands the EDT this thread's writes
+                SwingUtilities.invokeLater(() -> {
+                    open = true;
+                    for (Runnable r : waiting) r.run();
+                    waiting.clear();
+                });
+            }
+        }
 
-        synchronized void add(String player, int score) {
-            String when = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm").format(new Date());
-            try (FileOutputStream fos = new FileOutputStream(file, true)) {
-                String line = escape(player) + "," + score + "," + escape(when) + "\n";
-                fos.write(line.getBytes(StandardCharsets.UTF_8));
-            } catch (IOException ignored) {}
+        // EDT: whether the log has been opened (or failed to open)
+        boolean isOpen() { return open; }
+
+        // EDT: runs r now if the log is open, else once it is, after what was queued before it
+        void whenOpen(Runnable r) {
+            if (open) r.run();
+            else waiting.add(r);
         }
 
-        synchronized List<Score> top(int n) {
-            List<Score> list = new ArrayList<>();
-            if (!file.exists()) return list;
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
-                String ln;
-                while ((ln = br.readLine()) != null) {
-                    String[] parts = splitCsv(ln);
-                    if (parts.length >= 3) {
-                        String p = unescape(parts[0]);
-                        int s = Integer.parseInt(parts[1].trim());
-                        String w = unescape(parts[2]);
-                        list.add(new Score(p, s, w));
-                    }
+        // Called from onGameOver on the EDT: memory only, the disk write is queued
+        void add(String player, int score) {
+            long at = System.currentTimeMillis();
+            whenOpen(() -> {
+                if (writer == null) {
+                    System.err.println("scores: no score log, not saving " + player + " " + score);
+                    return;
                 }
-            } catch (IOException ignored) {}
-            list.sort((a,b)->Integer.compare(b.score, a.score));
-            if (list.size() > n) return list.subList(0, n);
-            return list;
+                writer.submit(player, score, at);
+            });
         }
 
-        synchronized void clear() {
-            if (file.exists()) file.delete();
+        ScoreStore.Board board(Range r, String player, boolean perPlayer) {
+            if (!open || store == null) return null;
+            return store.board(r.since(), player, perPlayer, BOARD_ROWS);
         }
 
-        private static String escape(String s){
-            if (s.contains(",") || s.contains("\"")) return "\"" + s.replace("\"","\"\"") + "\"";
-            return s;
+        List<ScoreStore.Entry> page(ScoreStore.Board b, int from, int to) {
+            return !open || store == null ? Collections.emptyList() : store.page(b, from, to);
         }
-        private static String unescape(String s){
-            s = s.trim();
-            if (s.startsWith("\"") && s.endsWith("\"")) {
-                s = s.substring(1, s.length()-1).replace("\"\"", "\"");
-            }
-            return s;
+
+        void clear() {
+            whenOpen(() -> {
+                if (file.exists() && !file.delete()) System.err.println("scores: could not delete " + file);
+                if (writer != null) writer.clear();
+            });
         }
-        private static String[] splitCsv(String line){
-            List<String> out = new ArrayList<>();
-            StringBuilder cur = new StringBuilder();
-            boolean inQ = false;
-            for (int i=0;i<line.length();i++){
-                char c = line.charAt(i);
-                if (inQ){
-                    if (c=='"'){
-                        if (i+1<line.length() && line.charAt(i+1)=='"'){ cur.append('"'); i++; }
-                        else inQ=false;
-                    } else cur.append(c);
-                } else {
-                    if (c=='"') inQ=true;
-                    else if (c==','){ out.add(cur.toString()); cur.setLength(0); }
-                    else cur.append(c);
-                }
-            }
-            out.add(cur.toString());
-            return out.toArray(new String[0]);
+
+        // First run on the binary log: copy scores.csv into it, atomically
+        private void importCsv() throws IOException {
+            java.nio.file.Path tmp = java.nio.file.Paths.get("scores.dat.tmp");
+            java.nio.file.Files.deleteIfExists(tmp);
+            long[] n = ScoreTool.importCsv(file.toPath(), tmp);
+            if (n[1] > 0) System.err.println("scores: skipped " + n[1] + " unreadable rows in " + file);
+            java.nio.file.Files.move(tmp, log, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
         }
     }
 
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(App::new);
+        Flight.start();
+        ScoreManager.get();   // starts opening the score log while the menu comes up
+        SwingUtilities.invokeLater(() -> {
+            App app = new App();
+            String replay = System.getProperty("frogger.replay");
+            if (replay != null) app.startReplay(java.nio.file.Paths.get(replay));
+        });
     }
 }
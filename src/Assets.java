@@ -1,4 +1,5 @@
 import javax.imageio.ImageIO;
+import java.awt.GraphicsEnvironment;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.URL;
@@ -8,9 +9,12 @@ import java.util.Map;
 // loader 
 class Assets {
     private static final Map<String, BufferedImage> cache = new HashMap<>();
+    private static SpriteAtlas atlas;
 
     private static BufferedImage load(String relPath) {
         if (cache.containsKey(relPath)) return cache.get(relPath);
+        Flight.AssetLoad ev = Flight.ON ? new Flight.AssetLoad() : null;
+        if (ev != null) { ev.asset = relPath; ev.begin(); }
         BufferedImage img = null;
         try {
             File f = new File("." + File.separator + relPath.replace("/", File.separator));
@@ -21,6 +25,11 @@ class Assets {
             }
         } catch (Exception ignored) {}
         cache.put(relPath, img);
+        if (ev != null) {
+            ev.found = img != null;
+            if (img != null) ev.bytes = 4L * img.getWidth() * img.getHeight();
+            ev.commit();
+        }
         return img;
     }
 
@@ -37,6 +46,18 @@ class Assets {
     static BufferedImage frogRight() { return load("/assets/sprites/frogRight.png"); }
     static BufferedImage frogRear()  { return load("/assets/sprites/frogRear.png"); }
 
+    // Pre-scaled, pre-flipped actor and frog sprites; built once
+    static synchronized SpriteAtlas atlas() {
+        if (atlas == null) {
+            Flight.AssetLoad ev = Flight.ON ? new Flight.AssetLoad() : null;
+            if (ev != null) { ev.asset = "sprite atlas"; ev.begin(); }
+            atlas = new SpriteAtlas(GraphicsEnvironment.isHeadless() ? null
+                    : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration());
+            if (ev != null) { ev.found = true; ev.commit(); }
+        }
+        return atlas;
+    }
+
     // Tiles
     static BufferedImage tileGrass()    { return load("assets/tiles/grass.png"); }
     static BufferedImage tileWater()    { return load("assets/tiles/water.png"); }
@@ -19,16 +19,24 @@ public class AudioManager {
     public void playLoop(String filePath) {
         stop(); // stop anything currently playing
 
+        Flight.AssetLoad ev = Flight.ON ? new Flight.AssetLoad() : null;
+        if (ev != null) { ev.asset = filePath; ev.begin(); }
         try {
             File f = new File(filePath);
             if (!f.exists()) {
                 System.err.println("Audio file not found: " + f.getAbsolutePath());
+                if (ev != null) ev.commit();
                 return;
             }
 
             AudioInputStream ais = AudioSystem.getAudioInputStream(f);
             currentClip = AudioSystem.getClip();
             currentClip.open(ais);
+            if (ev != null) {
+                ev.found = true;
+                ev.bytes = (long) currentClip.getFrameLength() * ais.getFormat().getFrameSize();
+                ev.commit();
+            }
             currentClip.loop(Clip.LOOP_CONTINUOUSLY);
             currentClip.start();
         } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
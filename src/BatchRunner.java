@@ -0,0 +1,225 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Difficulty tuning: plays thousands of seeded games per parameter set on
+ * every core and reports how long bots survive, what they score, how far
+ * they get and what kills them. Games are independent, so they are split
+ * across a ForkJoinPool with a parallel stream; each worker folds results
+ * into its own Tally and the tallies are merged at the end.
+ *
+ * Every set plays the same seeds with the same bot, so differences between
+ * sets come from the parameters rather than from luck of the draw.
+ *
+ * Usage: java -Djava.awt.headless=true BatchRunner [options] [set ...]
+ *   -games N      games per set (2000)
+ *   -threads N    worker threads (all cores)
+ *   -seed S       first seed; game g plays seed+g (1)
+ *   -bot NAME     random | hopper (hopper)
+ *   -minutes M    cap on one game's length in play time (5)
+ *   -bucket SEC   survival curve step (30)
+ * A set is "default" or a Tuning spec over the level table, e.g.
+ *   BatchRunner default 1.road.every=1.3 1.road.every=1.3,3.road.chance=0.7
+ */
+public class BatchRunner {
+
+    private static final int TICKS_PER_SEC = 60;
+
+    // Scripted player: adds this tick's actions after looking at the world
+    interface Bot {
+        void act(GameSimulation sim, Random r, InputFrame in);
+    }
+
+    // HeadlessRunner's masher without the skip key, so every level is earned
+    static final Bot RANDOM = (sim, r, in) -> {
+        if (r.nextInt(8) == 0) in.add((byte) (InputFrame.MOVE_LEFT + r.nextInt(4)));
+        if (r.nextInt(6) == 0) in.add((byte) (InputFrame.FIRE_LEFT + r.nextInt(4)));
+    };
+
+    // Hops forward when the tile ahead is clear, sidesteps or backs off when
+    // it is not, shoots around where levels are won by kills; a few ticks between moves
+    static final Bot HOPPER = (sim, r, in) -> {
+        boolean hunt = !sim.wonAtTop() && sim.canFire();
+        if (hunt && r.nextInt(4) == 0) in.add((byte) (InputFrame.FIRE_LEFT + r.nextInt(4)));
+        if (r.nextInt(6) != 0) return;
+        int x = sim.frogX(), y = sim.frogY(), t = GameSimulation.TILE;
+        if (!sim.wonAtTop()) {
+            // No goal to reach: keep out of the way of critters
+            if (sim.safeAt(x, y)) return;
+            byte dodge = (byte) (InputFrame.MOVE_LEFT + r.nextInt(4));
+            in.add(dodge);
+            return;
+        }
+        if (sim.safeAt(x, y - t)) { in.add(InputFrame.MOVE_UP); return; }
+        if (sim.safeAt(x, y)) return;
+        boolean leftFirst = r.nextBoolean();
+        if (sim.safeAt(x + (leftFirst ? -t : t), y)) in.add(leftFirst ? InputFrame.MOVE_LEFT : InputFrame.MOVE_RIGHT);
+        else if (sim.safeAt(x + (leftFirst ? t : -t), y)) in.add(leftFirst ? InputFrame.MOVE_RIGHT : InputFrame.MOVE_LEFT);
+        else in.add(InputFrame.MOVE_DOWN);
+    };
+
+    // Results for one set; one per worker while running, then merged
+    static final class Tally {
+        final int levels;                                    // highest level id
+        final int buckets;
+        final int bucketTicks;
+        long games, finished, ticks, scoreSum;
+        int maxScore;
+        final long[] alive;                                  // games still running at the start of each bucket
+        final long[] reached;                                // games that got to each level
+        final long[][] deaths;
+
+        Tally(int levels, int buckets, int bucketTicks) {
+            this.levels = levels;
+            this.buckets = buckets;
+            this.bucketTicks = bucketTicks;
+            alive = new long[buckets];
+            reached = new long[levels + 1];
+            deaths = new long[levels + 1][GameSimulation.DEATH_CAUSES.length];
+        }
+
+        void add(GameSimulation sim, boolean[] seen) {
+            games++;
+            ticks += sim.ticks();
+            if (sim.isOver()) {
+                finished++;
+                scoreSum += sim.finalScore();
+                maxScore = Math.max(maxScore, sim.finalScore());
+            }
+            // Games cut off at the length cap count as surviving to the end
+            int end = sim.isOver() ? sim.ticks() : Integer.MAX_VALUE;
+            for (int b = 0; b < buckets && end > b * bucketTicks; b++) alive[b]++;
+            for (int l = 1; l <= levels; l++) if (seen[l]) reached[l]++;
+            for (int l = 1; l <= levels; l++)
+                for (int c = 0; c < GameSimulation.DEATH_CAUSES.length; c++) deaths[l][c] += sim.deaths(l, c);
+        }
+
+        void merge(Tally o) {
+            games += o.games; finished += o.finished; ticks += o.ticks; scoreSum += o.scoreSum;
+            maxScore = Math.max(maxScore, o.maxScore);
+            for (int b = 0; b < buckets; b++) alive[b] += o.alive[b];
+            for (int l = 1; l <= levels; l++) {
+                reached[l] += o.reached[l];
+                for (int c = 0; c < GameSimulation.DEATH_CAUSES.length; c++) deaths[l][c] += o.deaths[l][c];
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = 2000, threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1L;
+        int minutes = 5, bucketSecs = 30;
+        Bot bot = HOPPER;
+        String botName = "hopper";
+        List<Tuning> sets = new ArrayList<>();
+        LevelSet base = LevelSet.standard();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                if (a.startsWith("-") && i + 1 >= args.length) throw new IllegalArgumentException(a + " needs a value");
+                switch (a) {
+                    case "-games"   -> games = Integer.parseInt(args[++i]);
+                    case "-threads" -> threads = Integer.parseInt(args[++i]);
+                    case "-seed"    -> seed = Long.parseLong(args[++i]);
+                    case "-minutes" -> minutes = Integer.parseInt(args[++i]);
+                    case "-bucket"  -> bucketSecs = Integer.parseInt(args[++i]);
+                    case "-bot" -> {
+                        botName = args[++i];
+                        if (botName.equals("random")) bot = RANDOM;
+                        else if (botName.equals("hopper")) bot = HOPPER;
+                        else throw new IllegalArgumentException("unknown bot: " + botName);
+                    }
+                    default -> {
+                        if (a.startsWith("-")) throw new IllegalArgumentException("unknown option: " + a);
+                        Tuning t = Tuning.parse(a);
+                        t.check(base);
+                        sets.add(t);
+                    }
+                }
+            }
+            if (games <= 0 || threads <= 0 || minutes <= 0 || bucketSecs <= 0)
+                throw new IllegalArgumentException("counts must be positive");
+        } catch (IllegalArgumentException e) {
+            System.err.println("BatchRunner: " + e.getMessage());
+            System.exit(2);
+        }
+        if (sets.isEmpty()) sets.add(Tuning.DEFAULT);
+
+        int maxTicks = minutes * 60 * TICKS_PER_SEC;
+        int bucketTicks = bucketSecs * TICKS_PER_SEC;
+        int buckets = (maxTicks + bucketTicks - 1) / bucketTicks;
+        System.out.printf("%d games/set  bot=%s  threads=%d  seeds %d..%d  cap %d min%n",
+                games, botName, threads, seed, seed + games - 1, minutes);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Tuning t : sets) {
+                final LevelSet levels = t.apply(base);
+                final long s0 = seed;
+                final Bot b = bot;
+                final int n = games;
+                long t0 = System.nanoTime();
+                // A parallel stream started from inside the pool runs on the pool's workers
+                Tally tally = pool.submit(() -> IntStream.range(0, n).parallel().collect(
+                        () -> new Tally(levels.highest(), buckets, bucketTicks),
+                        (acc, g) -> play(acc, s0 + g, levels, b, maxTicks),
+                        Tally::merge)).get();
+                report(t, tally, bucketSecs, (System.nanoTime() - t0) / 1e9);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("batch failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void play(Tally acc, long seed, LevelSet levels, Bot bot, int maxTicks) {
+        GameSimulation sim = new GameSimulation(seed, levels);
+        Random r = new Random(~seed);
+        InputFrame in = new InputFrame();
+        boolean[] seen = new boolean[acc.levels + 1];
+        seen[sim.level()] = true;
+        while (!sim.isOver() && sim.ticks() < maxTicks) {
+            in.clear();
+            if (!sim.inTransition()) bot.act(sim, r, in);
+            sim.step(in);
+            seen[sim.level()] = true;
+        }
+        acc.add(sim, seen);
+    }
+
+    private static void report(Tuning t, Tally tally, int bucketSecs, double secs) {
+        System.out.println();
+        System.out.println("set " + t);
+        System.out.printf("  %.2fs  %.0f games/s  %.0f ticks/s%n", secs, tally.games / secs, tally.ticks / secs);
+        System.out.printf("  score    avg %.1f  max %d  (%d of %d games over, avg length %.1fs)%n",
+                tally.finished == 0 ? 0.0 : tally.scoreSum / (double) tally.finished, tally.maxScore,
+                tally.finished, tally.games, tally.ticks / (double) tally.games / TICKS_PER_SEC);
+
+        StringBuilder sb = new StringBuilder("  reached ");
+        for (int l = 1; l <= tally.levels; l++) sb.append(String.format("  L%d %5.1f%%", l, pct(tally.reached[l], tally.games)));
+        System.out.println(sb);
+
+        sb = new StringBuilder("  alive   ");
+        for (int b = 0; b < tally.buckets; b++) {
+            if (b > 0 && b % 6 == 0) sb.append("\n          ");
+            sb.append(String.format("  %4ds %5.1f%%", b * bucketSecs, pct(tally.alive[b], tally.games)));
+        }
+        System.out.println(sb);
+
+        System.out.print("  deaths  ");
+        for (String c : GameSimulation.DEATH_CAUSES) System.out.printf("%8s", c);
+        System.out.println();
+        for (int l = 1; l <= tally.levels; l++) {
+            System.out.printf("      L%d  ", l);
+            for (int c = 0; c < GameSimulation.DEATH_CAUSES.length; c++) System.out.printf("%8d", tally.deaths[l][c]);
+            System.out.println();
+        }
+    }
+
+    private static double pct(long n, long of) { return of == 0 ? 0 : 100.0 * n / of; }
+}
@@ -0,0 +1,168 @@
+import java.awt.Rectangle;
+
+/**
+ * What changed on screen from one published Frame to the next, as a few
+ * rectangles to repaint. Counted in: every box an actor, shot,
+ * puff or the frog was drawn in or will be drawn in (the whole span between
+ * its previous and current tick, since paint interpolates somewhere in it),
+ * the HUD bar when one of its fields changes, the help box when it comes or
+ * goes, and the whole board for a new level or a full-screen overlay that
+ * starts, ends or fades. A paused game or a transition screen compares equal
+ * to the frame before, and then nothing is repainted at all.
+ *
+ * Boxes that overlap or nearly touch are merged, so a lane's traffic comes
+ * out as a handful of strips rather than one box over the whole board; past
+ * MAX_RECTS, a new box joins whichever rectangle it grows least.
+ *
+ * Loop thread only: the view calls update() with each frame it publishes.
+ */
+final class DirtyRegion {
+    private static final int W = GameSimulation.WIDTH, H = GameSimulation.HEIGHT;
+    private static final int PAD = 2;        // outlines and sprite rounding reach past the box
+    private static final int NEAR = 8;       // gap under which two rectangles are painted as one
+    private static final int MAX_RECTS = 16;
+
+    // Boxes drawn for the last frame and for this one: x, y, w, h, look
+    private int[] was = new int[5 * 64], now = new int[5 * 64];
+    private int wasCount, nowCount;
+
+    // Everything else the last frame showed
+    private boolean first = true;
+    private byte[] rows;
+    private int[] roadLaneY = new int[0];
+    private int level, lives, score, transitionTo, flashTicks, flashLevel;
+    private boolean paused, showHelp, advancing;
+    private String[] help;
+
+    // Damage so far: disjoint rectangles, x0 y0 x1 y1 each
+    private final int[] rx0 = new int[MAX_RECTS], ry0 = new int[MAX_RECTS], rx1 = new int[MAX_RECTS], ry1 = new int[MAX_RECTS];
+    private int rects;
+
+    // Diffs f against the previous frame; false when nothing on screen changed
+    boolean update(Frame f) {
+        rects = 0;
+        collect(f);
+
+        int transition = f.transitionTicks > 0 ? (f.nextLevelPending != 0 ? f.nextLevelPending : f.level + 1) : 0;
+        if (first || f.rows != rows || !sameLanes(f) || transition != transitionTo
+                || f.levelUpFlashTicks != flashTicks || (f.levelUpFlashTicks > 0 && f.justLeveledTo != flashLevel)) {
+            add(0, 0, W, H);
+        } else {
+            diffBoxes(f.advancing != advancing);
+            if (f.level != level || f.lives != lives || f.score != score || f.paused != paused)
+                add(0, 0, W, GameSimulation.TILE);
+            if (f.showHelp != showHelp || (f.showHelp && f.help != help))
+                add(W/2 - GamePanel.HELP_W/2, H/2 - GamePanel.HELP_H/2, GamePanel.HELP_W + 1, GamePanel.HELP_H + 1);
+        }
+
+        first = false;
+        rows = f.rows;
+        if (roadLaneY.length != f.roadLaneCount) roadLaneY = new int[f.roadLaneCount];
+        System.arraycopy(f.roadLaneY, 0, roadLaneY, 0, f.roadLaneCount);
+        level = f.level; lives = f.lives; score = f.score;
+        paused = f.paused; showHelp = f.showHelp; help = f.help; advancing = f.advancing;
+        transitionTo = transition; flashTicks = f.levelUpFlashTicks; flashLevel = f.justLeveledTo;
+        int[] t = was; was = now; now = t;
+        wasCount = nowCount;
+        return rects > 0;
+    }
+
+    // Damage that does not come from frames (the F3 overlay)
+    void add(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+        int ax0 = x, ay0 = y, ax1 = x + w, ay1 = y + h;
+        // Fold in every rectangle within NEAR; what grows may reach more, so rescan
+        for (int i = 0; i < rects; ) {
+            if (ax0 - NEAR < rx1[i] && rx0[i] < ax1 + NEAR && ay0 - NEAR < ry1[i] && ry0[i] < ay1 + NEAR) {
+                ax0 = Math.min(ax0, rx0[i]); ay0 = Math.min(ay0, ry0[i]);
+                ax1 = Math.max(ax1, rx1[i]); ay1 = Math.max(ay1, ry1[i]);
+                remove(i);
+                i = 0;
+            } else {
+                i++;
+            }
+        }
+        if (rects == MAX_RECTS) {
+            int best = 0;
+            long bestGrowth = Long.MAX_VALUE;
+            for (int i = 0; i < rects; i++) {
+                long u = (long) (Math.max(ax1, rx1[i]) - Math.min(ax0, rx0[i])) * (Math.max(ay1, ry1[i]) - Math.min(ay0, ry0[i]));
+                long growth = u - (long) (rx1[i] - rx0[i]) * (ry1[i] - ry0[i]);
+                if (growth < bestGrowth) { bestGrowth = growth; best = i; }
+            }
+            int bx0 = Math.min(ax0, rx0[best]), by0 = Math.min(ay0, ry0[best]);
+            int bx1 = Math.max(ax1, rx1[best]), by1 = Math.max(ay1, ry1[best]);
+            remove(best);
+            add(bx0, by0, bx1 - bx0, by1 - by0);   // the union may now reach others
+            return;
+        }
+        rx0[rects] = ax0; ry0[rects] = ay0; rx1[rects] = ax1; ry1[rects] = ay1;
+        rects++;
+    }
+
+    // Another region's rectangles (the view's pending damage)
+    void add(DirtyRegion d) {
+        for (int i = 0; i < d.rects; i++) add(d.rx0[i], d.ry0[i], d.rx1[i] - d.rx0[i], d.ry1[i] - d.ry0[i]);
+    }
+
+    void clear() { rects = 0; }
+
+    boolean isEmpty() { return rects == 0; }
+
+    int rects() { return rects; }
+
+    // Rectangle i, clipped to the board (possibly to nothing)
+    Rectangle rect(int i, Rectangle r) {
+        int ax = Math.max(0, rx0[i]), ay = Math.max(0, ry0[i]);
+        r.setBounds(ax, ay, Math.max(0, Math.min(W, rx1[i]) - ax), Math.max(0, Math.min(H, ry1[i]) - ay));
+        return r;
+    }
+
+    private void remove(int i) {
+        rects--;
+        rx0[i] = rx0[rects]; ry0[i] = ry0[rects]; rx1[i] = rx1[rects]; ry1[i] = ry1[rects];
+    }
+
+    private boolean sameLanes(Frame f) {
+        if (f.roadLaneCount != roadLaneY.length) return false;
+        for (int i = 0; i < f.roadLaneCount; i++) if (f.roadLaneY[i] != roadLaneY[i]) return false;
+        return true;
+    }
+
+    // Same rounding as the paint code, over the whole interpolation span
+    private void collect(Frame f) {
+        nowCount = 0;
+        for (int i = 0; i < f.count; i++) {
+            int ax = (int)Math.round(f.fromX[i]), bx = (int)Math.round(f.x[i]);
+            int ay = (int)Math.round(f.fromY[i]), by = (int)Math.round(f.y[i]);
+            int x = Math.min(ax, bx), y = Math.min(ay, by);
+            box(x, y, Math.max(ax, bx) - x + f.w[i], Math.max(ay, by) - y + f.h[i], f.kind[i] << 1 | (f.right[i] ? 1 : 0));
+        }
+        for (int i = 0; i < f.puffCount; i++) {
+            double r = f.puffR[i];
+            int d = (int)(r*2);
+            box((int)(f.puffX[i]-r), (int)(f.puffY[i]-r), d, d, 1000 + f.puffLife[i]);
+        }
+        box(f.frogX, f.frogY, f.frogW, f.frogH, 2000 + f.frogFacing.ordinal());
+    }
+
+    private void box(int x, int y, int w, int h, int look) {
+        if (5 * (nowCount + 1) > now.length) now = java.util.Arrays.copyOf(now, now.length * 2);
+        int o = 5 * nowCount++;
+        now[o] = x - PAD; now[o + 1] = y - PAD; now[o + 2] = w + 2*PAD; now[o + 3] = h + 2*PAD; now[o + 4] = look;
+    }
+
+    // Boxes at the same index that look the same draw the same pixels; the rest
+    // are damaged where they were and where they are now
+    private void diffBoxes(boolean all) {
+        int n = Math.max(wasCount, nowCount);
+        for (int i = 0; i < n; i++) {
+            int o = 5 * i;
+            boolean inWas = i < wasCount, inNow = i < nowCount;
+            if (!all && inWas && inNow && was[o] == now[o] && was[o + 1] == now[o + 1] && was[o + 2] == now[o + 2]
+                    && was[o + 3] == now[o + 3] && was[o + 4] == now[o + 4]) continue;
+            if (inWas) add(was[o], was[o + 1], was[o + 2], was[o + 3]);
+            if (inNow) add(now[o], now[o + 1], now[o + 2], now[o + 3]);
+        }
+    }
+}
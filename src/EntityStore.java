@@ -0,0 +1,144 @@
+import java.util.Arrays;
+
+/**
+ * Every lane actor (cars, trucks, logs, birds, snakes) as parallel primitive
+ * arrays indexed by slot. Movement, culling, collision filing and capture are
+ * plain loops over these arrays; there is no per-actor object and no
+ * instanceof dispatch.
+ *
+ * Kills only mark a slot dead. compact() then closes the gaps in one
+ * order-preserving sweep, because the rules depend on spawn order
+ * ("first hit" in the grid, critter flip rolls). Slots past count are
+ * reused by later spawns, so the store is the actor pool: it is sized up
+ * front and only grows (counted) when a level outruns that. Anything
+ * holding slots across a compaction (lane rings) follows moved[].
+ */
+final class EntityStore {
+    // Kinds share Frame's codes so capture is a straight copy
+    static final byte CAR = Frame.CAR, CAR_RED = Frame.CAR_RED, TRUCK = Frame.TRUCK,
+                      LOG = Frame.LOG, BIRD = Frame.BIRD, SNAKE = Frame.SNAKE;
+
+    // SpatialGrid layer per kind
+    private static final int[] LAYER = {
+        SpatialGrid.CARS, SpatialGrid.CARS, SpatialGrid.TRUCKS,
+        SpatialGrid.LOGS, SpatialGrid.BIRDS, SpatialGrid.SNAKES
+    };
+
+    int count;
+    byte[] kind;
+    double[] x, y;
+    double[] px, py;      // position before the last move (render interpolation)
+    double[] speed;       // horizontal px per tick
+    int[] w, h;
+    int[] lane;           // index into the kind's lane list, -1 if none
+    byte[] vdir;          // vertical wiggle direction (Level 2 critters)
+    boolean[] dead;
+    int[] moved;          // after compact(): old slot -> new slot, -1 if dropped
+    private int deadCount;
+
+    // Pool statistics
+    private int peak, grows;
+
+    EntityStore() { this(128); }
+
+    EntityStore(int capacity) {
+        kind = new byte[capacity];
+        x = new double[capacity]; y = new double[capacity];
+        px = new double[capacity]; py = new double[capacity];
+        speed = new double[capacity];
+        w = new int[capacity]; h = new int[capacity];
+        lane = new int[capacity];
+        vdir = new byte[capacity];
+        dead = new boolean[capacity];
+        moved = new int[capacity];
+    }
+
+    static int layer(byte kind) { return LAYER[kind]; }
+
+    int add(byte k, double x, double y, int w, int h, double speed, int lane) {
+        if (count == kind.length) grow();
+        int i = count++;
+        if (count > peak) peak = count;
+        kind[i] = k;
+        this.x[i] = x; this.y[i] = y;
+        px[i] = x; py[i] = y;
+        this.speed[i] = speed;
+        this.w[i] = w; this.h[i] = h;
+        this.lane[i] = lane;
+        vdir[i] = 1;
+        dead[i] = false;
+        return i;
+    }
+
+    void kill(int i) {
+        if (dead[i]) return;
+        dead[i] = true;
+        deadCount++;
+    }
+
+    // Every actor slides along its lane
+    void move() {
+        for (int i = 0; i < count; i++) {
+            px[i] = x[i];
+            py[i] = y[i];
+            x[i] += speed[i];
+        }
+    }
+
+    // Drops dead slots, keeping the survivors in spawn order; false when
+    // nothing was dead and every slot stayed put
+    boolean compact() {
+        if (deadCount == 0) return false;
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (dead[i]) { moved[i] = -1; continue; }
+            if (n != i) copy(i, n);
+            moved[i] = n++;
+        }
+        count = n;
+        deadCount = 0;
+        return true;
+    }
+
+    void clear() {
+        count = 0;
+        deadCount = 0;
+    }
+
+    // Live actors whose kind is in the layer mask
+    int count(int layerMask) {
+        int n = 0;
+        for (int i = 0; i < count; i++)
+            if (!dead[i] && (LAYER[kind[i]] & layerMask) != 0) n++;
+        return n;
+    }
+
+    int capacity() { return kind.length; }
+    int peak()     { return peak; }
+    int grows()    { return grows; }
+
+    private void copy(int from, int to) {
+        kind[to] = kind[from];
+        x[to] = x[from]; y[to] = y[from];
+        px[to] = px[from]; py[to] = py[from];
+        speed[to] = speed[from];
+        w[to] = w[from]; h[to] = h[from];
+        lane[to] = lane[from];
+        vdir[to] = vdir[from];
+        dead[to] = false;
+    }
+
+    private void grow() {
+        grows++;
+        int n = kind.length * 2;
+        kind = Arrays.copyOf(kind, n);
+        x = Arrays.copyOf(x, n); y = Arrays.copyOf(y, n);
+        px = Arrays.copyOf(px, n); py = Arrays.copyOf(py, n);
+        speed = Arrays.copyOf(speed, n);
+        w = Arrays.copyOf(w, n); h = Arrays.copyOf(h, n);
+        lane = Arrays.copyOf(lane, n);
+        vdir = Arrays.copyOf(vdir, n);
+        dead = Arrays.copyOf(dead, n);
+        moved = Arrays.copyOf(moved, n);
+    }
+}
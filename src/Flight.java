@@ -0,0 +1,138 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+
+/**
+ * Java Flight Recorder events for the game's subsystems, plus the
+ * continuous recording behind -Dfrogger.jfr=true.
+ *
+ * Events are only created when that flag is set (ON is a constant, so
+ * the guarded blocks vanish otherwise and the tick stays allocation-free).
+ * With the flag, start() keeps a ring-buffer recording of the JDK's
+ * default settings plus these events, bounded by frogger.jfr.maxAge
+ * (minutes, default 10) and frogger.jfr.maxSize (MB, default 64). It is
+ * dumped to frogger.jfr.dir (default ".") on game over and on an
+ * uncaught exception.
+ */
+final class Flight {
+    static final boolean ON = Boolean.getBoolean("frogger.jfr");
+
+    private static Recording recording;
+
+    private Flight() {}
+
+    @Name("frogger.Tick") @Label("Simulation Tick") @Category({"Frogger", "Simulation"})
+    static final class Tick extends Event {
+        @Label("Level") int level;
+        @Label("Tick") int tick;
+        @Label("Actors") int actors;
+        @Label("Shots") int shots;
+        @Label("Puffs") int puffs;
+    }
+
+    // One pass of the step: "spawn", "shots" (projectile collisions) or "frog" (cull and frog collisions)
+    @Name("frogger.Pass") @Label("Simulation Pass") @Category({"Frogger", "Simulation"})
+    static final class Pass extends Event {
+        @Label("Pass") String pass;
+        @Label("Level") int level;
+        @Label("Actors") int actors;
+    }
+
+    @Name("frogger.LevelSetup") @Label("Level Setup") @Category({"Frogger", "Simulation"})
+    static final class LevelSetup extends Event {
+        @Label("Level") int level;
+        @Label("Actors") int actors;
+        @Label("Lanes") int lanes;
+    }
+
+    @Name("frogger.Paint") @Label("Paint") @Category({"Frogger", "Rendering"})
+    static final class Paint extends Event {
+        @Label("Level") int level;
+        @Label("Actors") int actors;
+        @Label("Puffs") int puffs;
+    }
+
+    @Name("frogger.ScoreWrite") @Label("Score Write") @Category({"Frogger", "Scores"})
+    static final class ScoreWrite extends Event {
+        @Label("Games") int games;
+        @Label("Synced") boolean synced;
+    }
+
+    @Name("frogger.AssetLoad") @Label("Asset Load") @Category({"Frogger", "Assets"})
+    static final class AssetLoad extends Event {
+        @Label("Asset") String asset;
+        @Label("Found") boolean found;
+        @Label("Decoded Size") @DataAmount(DataAmount.BYTES) long bytes;
+    }
+
+    @Name("frogger.GameOver") @Label("Game Over") @Category({"Frogger", "Simulation"})
+    static final class GameOver extends Event {
+        @Label("Level") int level;
+        @Label("Score") int score;
+        @Label("Ticks") int ticks;
+    }
+
+    static Pass pass(String name, int level) {
+        Pass e = new Pass();
+        e.pass = name;
+        e.level = level;
+        e.begin();
+        return e;
+    }
+
+    // Starts the ring-buffer recording; no-op without -Dfrogger.jfr=true
+    static synchronized void start() {
+        if (!ON || recording != null) return;
+        try {
+            Recording r = new Recording(Configuration.getConfiguration("default"));
+            r.setName("frogger");
+            r.setToDisk(true);
+            r.setMaxAge(Duration.ofMinutes(Long.getLong("frogger.jfr.maxAge", 10)));
+            r.setMaxSize(Long.getLong("frogger.jfr.maxSize", 64) << 20);
+            for (Class<? extends Event> c : java.util.List.of(Tick.class, Pass.class, LevelSetup.class,
+                    Paint.class, ScoreWrite.class, AssetLoad.class, GameOver.class)) {
+                r.enable(c).withoutThreshold();
+            }
+            r.start();
+            recording = r;
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("jfr: recording not started: " + e);
+            return;
+        }
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((t, ex) -> {
+            dump("crash");
+            if (previous != null) previous.uncaughtException(t, ex);
+            else {
+                System.err.print("Exception in thread \"" + t.getName() + "\" ");
+                ex.printStackTrace();
+            }
+        });
+    }
+
+    // Writes the ring buffer out as frogger-<reason>-<time>.jfr; returns the file or null
+    static Path dump(String reason) {
+        Recording r;
+        synchronized (Flight.class) { r = recording; }
+        if (r == null) return null;
+        Path file = Paths.get(System.getProperty("frogger.jfr.dir", "."),
+                String.format("frogger-%s-%2$tY%2$tm%2$td-%2$tH%2$tM%2$tS.jfr", reason, new java.util.Date()));
+        try {
+            r.dump(file);
+            System.err.println("jfr: wrote " + file);
+            return file;
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("jfr: dump failed: " + e);
+            return null;
+        }
+    }
+}
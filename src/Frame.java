@@ -0,0 +1,93 @@
+/**
+ * Snapshot of everything the view needs to draw one frame.
+ * Filled on the game-loop thread and handed over through FrameBuffer, so the
+ * EDT never sees a half-updated tick. Frames are recycled: reset() keeps the
+ * arrays and only grows them when a tick has more actors than any before it.
+ */
+final class Frame {
+    // Actor kinds (draw order is capture order)
+    static final byte CAR = 0, CAR_RED = 1, TRUCK = 2, LOG = 3, BIRD = 4, SNAKE = 5, SHOT = 6;
+
+    // Publication order, set by FrameBuffer
+    long seq;
+
+    // Wall time of the step boundary this frame was captured at
+    long stepNanos;
+
+    // Scene / HUD
+    int level, lives, score;
+    boolean paused, showHelp;
+    int transitionTicks, nextLevelPending;
+    int levelUpFlashTicks, justLeveledTo;
+    int[] roadLaneY = new int[8];
+    int roadLaneCount;
+    byte[] rows;         // the level's row types and help text; shared, never written
+    String[] help;
+    boolean advancing;   // false while paused or in a transition: draw actors at rest
+
+    // Frog
+    int frogX, frogY, frogW, frogH;
+    Frog.Dir frogFacing = Frog.Dir.UP;
+
+    // Actors: current and previous-tick position for interpolation
+    int count;
+    byte[] kind;
+    double[] x, y, fromX, fromY;
+    int[] w, h;
+    boolean[] right;
+
+    // Hit puffs
+    int puffCount;
+    double[] puffX, puffY, puffR;
+    int[] puffLife;
+
+    Frame() { this(64, 32); }
+
+    Frame(int actorCapacity, int puffCapacity) {
+        allocActors(actorCapacity);
+        allocPuffs(puffCapacity);
+    }
+
+    // Empties the frame for a new capture, growing storage only when needed
+    void reset(long stepNanos, int actors, int puffs, int roadLanes) {
+        this.stepNanos = stepNanos;
+        count = 0;
+        puffCount = 0;
+        if (actors > kind.length) allocActors(Math.max(actors, kind.length * 2));
+        if (puffs > puffX.length) allocPuffs(Math.max(puffs, puffX.length * 2));
+        if (roadLanes > roadLaneY.length) roadLaneY = new int[roadLanes];
+        roadLaneCount = roadLanes;
+    }
+
+    void add(byte k, double x, double y, double fromX, double fromY, int w, int h, boolean right) {
+        int i = count++;
+        kind[i] = k;
+        this.x[i] = x; this.y[i] = y;
+        this.fromX[i] = fromX; this.fromY[i] = fromY;
+        this.w[i] = w; this.h[i] = h;
+        this.right[i] = right;
+    }
+
+    void addPuff(double x, double y, double r, int life) {
+        int i = puffCount++;
+        puffX[i] = x; puffY[i] = y; puffR[i] = r; puffLife[i] = life;
+    }
+
+    private void allocActors(int n) {
+        kind = new byte[n];
+        x = new double[n];
+        y = new double[n];
+        fromX = new double[n];
+        fromY = new double[n];
+        w = new int[n];
+        h = new int[n];
+        right = new boolean[n];
+    }
+
+    private void allocPuffs(int n) {
+        puffX = new double[n];
+        puffY = new double[n];
+        puffR = new double[n];
+        puffLife = new int[n];
+    }
+}
@@ -0,0 +1,30 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Triple-buffered hand-off of Frames from the loop thread to the EDT.
+ * The writer fills its back frame and swaps it into the middle slot; the
+ * reader swaps its front frame for the middle one only when the middle one
+ * is newer. Each side owns its frame outright, so three Frames are reused
+ * for the whole game instead of allocating one per publish.
+ */
+final class FrameBuffer {
+    private final AtomicReference<Frame> middle = new AtomicReference<>(new Frame());
+    private Frame back = new Frame();    // loop thread only
+    private Frame front = new Frame();   // EDT only
+    private long seq = 0;
+
+    // Writer: the frame to fill next
+    Frame back() { return back; }
+
+    // Writer: hand the filled back frame over and take a spare one
+    void publish() {
+        back.seq = ++seq;
+        back = middle.getAndSet(back);
+    }
+
+    // Reader: newest published frame (null before the first publish)
+    Frame latest() {
+        if (middle.get().seq > front.seq) front = middle.getAndSet(front);
+        return front.seq == 0 ? null : front;
+    }
+}
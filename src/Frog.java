@@ -1,34 +1,20 @@
-import java.awt.*;
-import java.awt.image.BufferedImage;
-
 class Frog {
-    // Match GamePanel constants
-    static final int TILE = GamePanel.TILE;
+    // Match GameSimulation constants
+    static final int TILE = GameSimulation.TILE;
+    static final int SIZE = TILE - 4;
 
     int x, y;
-    int w = TILE - 4;
-    int h = TILE - 4;
+    int w = SIZE;
+    int h = SIZE;
 
     boolean alive = true;
 
-    private enum Dir { LEFT, RIGHT, UP, DOWN }
-    private Dir facing = Dir.UP; // default = forward (toward goal)
-
-    // Sprites
-    private final BufferedImage sprFront; 
-    private final BufferedImage sprLeft;  
-    private final BufferedImage sprRight; 
-    private final BufferedImage sprRear;  
+    enum Dir { LEFT, RIGHT, UP, DOWN }
+    Dir facing = Dir.UP; // default = forward (toward goal)
 
     Frog(int startX, int startY) {
         this.x = startX;
         this.y = startY;
-
-        // Load once
-        sprFront = Assets.frog();       
-        sprLeft  = Assets.frogLeft();    
-        sprRight = Assets.frogRight();   
-        sprRear  = Assets.frogRear();    
     }
 
     void update() {
@@ -52,30 +38,12 @@ class Frog {
     void clampToBoard(int width) {
         if (x < 0) x = 0;
         if (x + w > width) x = width - w;
-        if (y < GamePanel.TILE) y = GamePanel.TILE; // keep below HUD
-        int maxY = GamePanel.HEIGHT - h;
+        if (y < GameSimulation.TILE) y = GameSimulation.TILE; // keep below HUD
+        int maxY = GameSimulation.HEIGHT - h;
         if (y > maxY) y = maxY;
     }
 
-    Rectangle bounds() { return new Rectangle(x, y, w, h); }
 
-    void draw(Graphics2D g) {
-        BufferedImage use = switch (facing) {
-            case LEFT  -> (sprLeft  != null ? sprLeft  : sprFront);
-            case RIGHT -> (sprRight != null ? sprRight : sprFront);
-            case UP    -> (sprFront  != null ? sprRear  : sprFront);
-            case DOWN  -> (sprRear != null ? sprFront : sprRear);
-        };
-
-        if (use != null) {
-            g.drawImage(use, x, y, w, h, null);
-        } else {
-            g.setColor(new Color(56, 196, 96));
-            g.fillOval(x, y, w, h);
-            g.setColor(Color.BLACK);
-            g.drawOval(x, y, w, h);
-        }
-    }
 public int facingDX() {
     // LEFT, RIGHT, UP, DOWN
     return switch (facing) {
@@ -0,0 +1,82 @@
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep loop that drives the simulation on its own thread.
+ * Wall-clock time is accumulated and consumed in whole STEP_NANOS slices,
+ * so lane speeds, spawn cadence and tick timers no longer depend on how
+ * quickly the EDT gets around to painting.
+ */
+class GameLoop implements Runnable {
+
+    interface Stepper {
+        // advance the simulation by exactly one tick
+        void step();
+        // hand the latest state to the view; stepNanos is the wall time of the last step boundary
+        void publish(long stepNanos);
+        // the loop thread is on its way out: nothing steps after this
+        default void stopped() {}
+    }
+
+    static final int TICKS_PER_SECOND = 60;
+    static final long STEP_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+
+    // Catch-up cap per wake-up; past this we drop time instead of spiralling
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
+    private final Stepper stepper;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    GameLoop(Stepper stepper) {
+        this.stepper = stepper;
+    }
+
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "frogger-game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // False when no loop thread was running; otherwise that thread calls
+    // stopped() on its way out, even if the join here gives up first
+    synchronized boolean stop() {
+        running = false;
+        if (thread == null) return false;
+        LockSupport.unpark(thread);
+        if (thread != Thread.currentThread()) {
+            try { thread.join(250); }
+            catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        thread = null;
+        return true;
+    }
+
+    boolean isRunning() { return running; }
+
+    @Override public void run() {
+        long last = System.nanoTime();
+        long acc = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            acc += now - last;
+            last = now;
+
+            int steps = 0;
+            while (acc >= STEP_NANOS && steps < MAX_STEPS_PER_FRAME) {
+                stepper.step();
+                acc -= STEP_NANOS;
+                steps++;
+            }
+            // Too far behind (debugger, suspended VM): forget the backlog
+            if (acc >= STEP_NANOS) acc %= STEP_NANOS;
+
+            if (steps > 0) stepper.publish(now - acc);
+
+            LockSupport.parkNanos(STEP_NANOS - acc);
+        }
+        stepper.stopped();
+    }
+}
@@ -1,16 +1,39 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.*;
-import java.awt.image.BufferedImage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-class GamePanel extends JPanel implements ActionListener, KeyListener {
+// Swing view over GameSimulation: maps keys to InputFrame actions and paints published Frames
+class GamePanel extends JPanel implements GameLoop.Stepper, ActiveRenderer.Painter, KeyListener {
     // Board constants
-    static final int TILE = 40;
-    static final int COLS = 16;
-    static final int ROWS = 18;
-    static final int WIDTH = COLS * TILE;
-    static final int HEIGHT = ROWS * TILE;
+    static final int TILE = GameSimulation.TILE;
+    static final int COLS = GameSimulation.COLS;
+    static final int ROWS = GameSimulation.ROWS;
+    static final int WIDTH = GameSimulation.WIDTH;
+    static final int HEIGHT = GameSimulation.HEIGHT;
+    static final int HELP_W = 400, HELP_H = 120;
+
+    // Paint colors and fonts, made once instead of per frame
+    private static final Color HELP_BG = new Color(0,0,0,180);
+    private static final Color TRANSITION_BG = new Color(0,0,0,200);
+    private static final Color FLASH_TEXT = new Color(255, 255, 120);
+    private static final Color METRICS_BG = new Color(0, 0, 0, 170);
+    private static final Color METRICS_FG = new Color(140, 255, 140);
+    private static final Font METRICS_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    static final Color CAR_RED = new Color(210,48,48), CAR = new Color(184,80,80), TRUCK = new Color(84, 132, 196),
+                       LOG = new Color(128,88,48), BIRD = new Color(255, 220, 120), SNAKE = new Color(80, 200, 120),
+                       SHOT = new Color(255, 240, 120), SHOT_EDGE = new Color(180, 120, 30), FROG = new Color(56, 196, 96);
+    // Fading colors by alpha, all made up front: the EDT and the render thread both read them
+    private static final Color[] PUFF = new Color[256], SHADE = new Color[256];
+    private static final AlphaComposite[] FADE = new AlphaComposite[256];
+    static {
+        for (int a = 0; a < 256; a++) {
+            PUFF[a] = new Color(255, 255, 200, a);
+            SHADE[a] = new Color(0, 0, 0, a);
+            FADE[a] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, a / 255f);
+        }
+    }
 
     // Listener back to App (menu/scoreboard)
     interface GameListener {
@@ -21,1171 +44,519 @@ class GamePanel extends JPanel implements ActionListener, KeyListener {
     private final String playerName;
     private final GameListener listener;
 
-    // Actor sizes 
-    private static final int CAR_W    = TILE * 2;
-    private static final int CAR_H    = TILE - 10;
-    private static final int TRUCK_W  = TILE * 3;
-    private static final int TRUCK_H  = TILE - 8;
-    private static final int LOG_W    = TILE * 3;
-    private static final int LOG_H    = TILE - 12;
-    private static final int BIRD_W   = TILE - 8;
-    private static final int BIRD_H   = TILE - 14;
-    private static final int SNAKE_W  = (int)(TILE * 1.6);
-    private static final int SNAKE_H  = TILE - 12;
+    // Simulation is owned by the loop thread; the EDT only sees published Frames
+    private final GameSimulation sim;
+    private final GameLoop loop = new GameLoop(this);
+    private final ConcurrentLinkedQueue<Byte> pendingInput = new ConcurrentLinkedQueue<>();
+    private final InputFrame input = new InputFrame();
+    private final FrameBuffer frames = new FrameBuffer();
+
+    // Only what changed since the last published frame is repainted (see DirtyRegion);
+    // the active renderer just learns whether anything did. Damage waits in pending
+    // (guarded by itself) until the EDT paints it, one rectangle at a time: repaint()
+    // would let the RepaintManager union the rectangles back into one box
+    private final DirtyRegion dirty = new DirtyRegion();
+    private final DirtyRegion pending = new DirtyRegion();
+    private Rectangle[] damage = new Rectangle[0];
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+    private boolean overSent = false;
+
+    // Histograms (see Metrics); the overlay is toggled with F3
+    private final Metrics metrics = Metrics.get();
+    private final int[] census = new int[Metrics.KINDS.length];
+    private volatile boolean showMetrics = false;
+    private String[] metricsLines = new String[0];
+    private long metricsAt = 0;
+    private volatile Rectangle metricsArea;
+
+    // Input recording (-Dfrogger.record=<dir>) or playback; both touched by the loop thread only
+    private final InputLog recording;
+    private final InputLog.Cursor replay;
+
+    // Render state, touched by whichever thread paints: the EDT, or the render thread in active mode
+    private LevelBackground background;
+    private final SpriteAtlas atlas = Assets.atlas();
+
+    // Playfield drawn by SoftRaster (-Dfrogger.raster=software); null draws it with Java2D
+    private SoftRaster raster;
+
+    // Pre-rendered text per style (see TextCache); made on the first paint, from its font
+    private TextCache hudText, helpText, titleText, subText, flashTitle, flashNumber;
+    private final String hudPlayer;
+
+    // Active rendering (-Dfrogger.render=active); null on the Swing paint path
+    private volatile ActiveRenderer renderer;
+    private Canvas canvas;
 
-    // Projectiles & scoring (Level 2/3)
-    private final java.util.List<Projectile> shots = new ArrayList<>();
-    private long lastShotTick = -1000;
-    private static final int KILL_SCORE = 25;
-
-    // Hit effects (simple puff particles)
-    private static class Puff {
-        double x,y, r, vr;
-        int life;
-        Puff(double x,double y){ this.x=x; this.y=y; this.r=2; this.vr=0.9; this.life=16; }
-        boolean update(){ r += vr; life--; return life>0; }
-        void draw(Graphics2D g){
-            int alpha = Math.max(0, Math.min(255, life*12));
-            g.setColor(new Color(255,255,200, alpha));
-            int d=(int)(r*2);
-            g.fillOval((int)(x-r),(int)(y-r), d,d);
-        }
+    // Constructor & lifecycle 
+    GamePanel(String playerName, GameListener listener) {
+        this(playerName, listener, newSeed());
     }
-    private final java.util.List<Puff> puffs = new ArrayList<>();
-
-    // Combo state 
-    private int combo = 0;
-    private int comboTimer = 0;
-    private static final int COMBO_WINDOW_TICKS = 60; // ~1 sec at 60fps
-
-    // Update & state
-    private final javax.swing.Timer timer;
-    private final Frog frog;
-
-    // Pools
-    private final java.util.List<Car> cars = new ArrayList<>();
-    private final java.util.List<Truck> trucks = new ArrayList<>();
-    private final java.util.List<Log> logs = new ArrayList<>();
-    private final java.util.List<Bird> birds = new ArrayList<>();
-    private final java.util.List<Snake> snakes = new ArrayList<>();
-    private final java.util.List<Lane> roadLanes = new ArrayList<>();
-    private final java.util.List<Lane> riverLanes = new ArrayList<>();
-    private final java.util.List<Lane> critterLanes = new ArrayList<>();
-
-    private final Random rng = new Random();
-
-    // Densities (used in L1 only)
-    private double trafficScale = 1.6;
-    private double logDensityScale = 1.4;
-    private double critterDensityScale = 1.5;
-
-    // Spacing
-    private final int VEHICLE_MIN_GAP = TILE;     // desired min gap on a road lane
-    private final int CRITTER_MIN_GAP = TILE/2;
 
-    // Levels (game scenes)
-    private int level = 1;                // numeric level indicator (scene)
-    private boolean levelTwo = false;     // Level 2 (critter survival, kill 30)
-    private boolean levelThree = false;   // Level 3 (traffic, reach top)
-    private boolean levelFour = false;    // Level 4 (river/logs)
-
-    private int lives = 3;
-    private int ticks = 0;
-    private boolean paused = false;
-    private boolean showHelp = true;
-
-    private int score = 0;
-    private int bestRowY;
-
-    // Player progression (fire-mode unlocks)
-    private int playerLevel = 1;                    // starts at level 1
-    private static final int LEVEL2_THRESHOLD = 1000;
-    private static final int LEVEL3_THRESHOLD = 3000;
-    private int levelUpFlashTicks = 0;              // overlay timer
-    private int justLeveledTo = 1;                  // holds new level for overlay
-    private static final int LEVELUP_FLASH_FRAMES = 45;
-
-    // L2 kill target (no timer)
-    private static final int L2_KILL_TARGET = 30;
-    private int l2KillCount = 0;
-
-    // Critter population targets for L2
-    private static final int CRITTER_MIN_ONSCREEN = 15;
-    private static final int CRITTER_MAX_ONSCREEN = 20;
-
-    // Level 2 spawn/motion settings
-    private static final double L2_BASE_SPEED   = 2.0; // base horizontal speed for critters
-    private static final int    L2_SPAWN_EVERY  = 12;  // spawn cadence base
-    private static final double L2_SPAWN_CHANCE = 0.98;
-    private static final double L2_DOUBLE_CHANCE= 0.20;
-    private static final double V_SPEED         = 0.6; // vertical wiggle
-    private static final double FLIP_CHANCE     = 0.01;// occasional horizontal flip
-
-    // Level 3 vehicles settings
-    private static final double L3_BASE_SPEED   = 1.65;
-    private static final int    L3_SPAWN_EVERY  = 26;
-    private static final double L3_SPAWN_CHANCE = 0.55;
-
-    // Level 4 logs settings
-    private static final int    L4_LOG_SPAWN_EVERY = 32;
-    private static final double L4_LOG_BASE_SPEED  = 1.55;
-    private static final double L4_SPAWN_CHANCE    = 0.60;
-
-    // Transition overlay ("Next Level")
-    private int transitionTicks = 0;
-    private int nextLevelPending= 0;
-    private static final int TRANSITION_FRAMES = 60; // ~1 sec
+    private GamePanel(String playerName, GameListener listener, long seed) {
+        this(playerName, listener, new GameSimulation(seed),
+             System.getProperty("frogger.record") != null ? new InputLog(seed) : null, null);
+    }
 
-    // L2 vertical wiggle bookkeeping
-    private final IdentityHashMap<Object, Lane> ownerLane = new IdentityHashMap<>();
-    private final IdentityHashMap<Object, Integer> vdir = new IdentityHashMap<>();
+    // Plays a recording back through a fresh simulation; the keyboard only has ESC
+    static GamePanel replay(InputLog log, GameListener listener) {
+        return new GamePanel("replay", listener, new GameSimulation(log.seed), null, log.replay());
+    }
 
-    // Firing modes and directional shooting
-    private enum FireMode { SINGLE, SPREAD, NOVA }
-    private FireMode fireMode = FireMode.SINGLE; // current selection
+    GamePanel(String playerName, GameListener listener, GameSimulation sim) {
+        this(playerName, listener, sim, null, null);
+    }
 
-    // Constructor & lifecycle 
-    GamePanel(String playerName, GameListener listener) {
+    private GamePanel(String playerName, GameListener listener, GameSimulation sim,
+                      InputLog recording, InputLog.Cursor replay) {
         this.playerName = playerName;
+        this.hudPlayer = " | Player: " + playerName;
         this.listener = listener;
+        this.sim = sim;
+        this.recording = recording;
+        this.replay = replay;
+        sim.setMetrics(metrics);
 
         setPreferredSize(new Dimension(WIDTH, HEIGHT));
         setFocusable(true);
         setBackground(new Color(22,18,32));
         addKeyListener(this);
 
-        frog = new Frog(WIDTH/2 - TILE/2, (ROWS-1)*TILE + 4);
-        bestRowY = frog.y;
+        if (ActiveRenderer.requested()) {
+            setLayout(new BorderLayout());
+            canvas = new Canvas();
+            canvas.setPreferredSize(new Dimension(WIDTH, HEIGHT));
+            canvas.setBackground(getBackground());
+            canvas.setFocusable(true);
+            canvas.addKeyListener(this);
+            add(canvas, BorderLayout.CENTER);
+            renderer = new ActiveRenderer(canvas, this, this::fallbackToSwing);
+        }
+        if (SoftRaster.requested()) raster = new SoftRaster(SoftRaster.threadsWanted());
 
-        timer = new javax.swing.Timer(16, this); 
-        timer.setCoalesce(true);
-        timer.setInitialDelay(0);
-        timer.start();
-        setupLevel();
+        sim.capture(frames.back(), System.nanoTime());
+        frames.publish();
     }
 
-    void start() { if (!timer.isRunning()) timer.start(); }
-    void stop()  { if  (timer.isRunning())  timer.stop(); }
-    @Override public void addNotify() { super.addNotify(); requestFocusInWindow(); }
-
-    private double vary(double base, double factor) {
-        double mult = 1.0 + (rng.nextDouble()*2 - 1) * factor;
-        return base * mult;
+    void start() {
+        loop.start();
+        ActiveRenderer r = renderer;
+        if (r != null) r.start();
+    }
+    void stop() {
+        ActiveRenderer r = renderer;
+        if (r != null) r.stop();
+        // Left before the end (ESC): the loop thread keeps what was played once it
+        // has taken its last step (stopped()); with no loop thread it is saved here
+        if (!loop.stop()) saveRecording();
+        if (raster != null) raster.close();
     }
-    private static double clamp(double v,double a,double b){ return Math.max(a, Math.min(b, v)); }
-
-    // Level setup
-    private void setupLevel() {
-        cars.clear(); trucks.clear(); logs.clear(); birds.clear(); snakes.clear();
-        roadLanes.clear(); riverLanes.clear(); critterLanes.clear();
-        shots.clear(); puffs.clear();
-        ownerLane.clear(); vdir.clear();
-        combo = 0; comboTimer = 0;
-
-        levelTwo   = (level == 2);
-        levelThree = (level == 3);
-        levelFour  = (level == 4);
-
-        if (levelTwo) {
-            // Level 2: Critter survival (kill 30, no timer)
-            l2KillCount = 0;
-            for (int r = 3; r <= ROWS - 3; r++) {
-                boolean right = (r % 2 == 0);
-                critterLanes.add(new Lane(r * TILE, right ? L2_BASE_SPEED : -L2_BASE_SPEED, L2_SPAWN_EVERY));
-            }
-            resetFrog(false);
-            repaint();
-            return;
-        }
-
-        if (levelThree) {
-            // Level 3: Roads ONLY (reach top to win)
-            for (int r = 3; r <= ROWS - 3; r++) {
-                boolean right = ((r % 2) == 1);
-                double baseSpeed = L3_BASE_SPEED + ((r % 3) * 0.12);
-                int spawnEvery = Math.max(16, L3_SPAWN_EVERY - ((r % 3) * 2));
-                roadLanes.add(new Lane(r * TILE, right ? baseSpeed : -baseSpeed, spawnEvery));
-            }
-            // Seed some vehicles present initially
-            for (Lane lane : roadLanes) {
-                int target = 1 + (rng.nextDouble() < 0.6 ? 1 : 0);
-                int seeded = 0, attempts = 0;
-                while (seeded < target && attempts++ < 40) {
-                    int y = lane.y + 5;
-                    boolean truck = rng.nextDouble() < 0.35;
-                    int w = truck ? TRUCK_W : CAR_W;
-                    int h = truck ? TRUCK_H : CAR_H;
-                    int x = rng.nextInt(WIDTH - w);
-                    double sp = truck
-                            ? vary(Math.copySign(Math.abs(lane.speed*0.9), lane.speed), 0.25)
-                            : vary(lane.speed, 0.25);
-                    if (laneHasSpaceFor(lane, x, y, w, h, VEHICLE_MIN_GAP)) {
-                        if (truck) trucks.add(new Truck(x, y, w, h, sp));
-                        else {
-                            Car.Kind kind = (rng.nextDouble() < 0.5) ? Car.Kind.RED : Car.Kind.NORMAL;
-                            cars.add(new Car(x, y, w, h, sp, kind));
-                        }
-                        seeded++;
-                    }
-                }
-            }
-            resetFrog(false);
-            repaint();
-            return;
-        }
-
-        if (levelFour) {
-            // Level 4: river rows with uglyGrass borders
-            for (int r = 3; r <= ROWS - 3; r++) {
-                boolean right = ((r % 2) == 0);
-                double sp = L4_LOG_BASE_SPEED + ((r % 3) * 0.10);
-                riverLanes.add(new Lane(r*TILE, right ? sp : -sp, L4_LOG_SPAWN_EVERY));
-            }
-            for (Lane lane : riverLanes) {
-                int toPlace = (rng.nextDouble() < 0.5) ? 1 : 0;
-                int attempts = 0;
-                while (toPlace > 0 && attempts++ < 20) {
-                    int y = lane.y + 6, x = rng.nextInt(WIDTH-LOG_W);
-                    if (logLaneHasSpaceFor(lane, x, y, LOG_W, LOG_H, TILE/2)) {
-                        logs.add(new Log(x, y, LOG_W, LOG_H, lane.speed));
-                        toPlace--;
-                    }
-                }
-            }
-            resetFrog(false);
-            repaint();
-            return;
-        }
-
-        // LEVEL 1
-        // River lanes: rows 2..4 (alternating dir)
-        int[] riverRows = {4,3,2};
-        for (int i = 0; i < riverRows.length; i++) {
-            int row = riverRows[i];
-            boolean right = (i % 2 == 0);
-            double baseSpeed = 1.25 + 0.2 * i + (level-1) * 0.15;
-            int spawnEvery = Math.max(48 - level*2 - i*2, 18);
-            spawnEvery = (int)Math.round(spawnEvery * logDensityScale);
-            riverLanes.add(new Lane(row*TILE, right ? baseSpeed : -baseSpeed, spawnEvery));
-        }
-
-        // Road lanes (top-bottom): rows 6..11
-        // Directions fixed: lanes 1,3,5 → right (+); lanes 2,4,6 → left (-)
-        int[] roadRowsTopDown = {6,7,8,9,10,11};
-        for (int i = 0; i < roadRowsTopDown.length; i++) {
-            int row = roadRowsTopDown[i];
-            boolean dirRight = ((i % 2) == 0);
-            double baseSpeed = 1.5 + 0.12 * i + (level-1) * 0.22;
-            int spawnEvery = Math.max(34 - level*2 - i*2, 14);
-            spawnEvery = (int)Math.round(spawnEvery * trafficScale);
-            roadLanes.add(new Lane(row*TILE, dirRight ? baseSpeed : -baseSpeed, spawnEvery));
-        }
-
-        // Critter lanes (bottom): rows 14..16 (alternating dir)
-        int[] critterRows = {16,15,14};
-        for (int i = 0; i < critterRows.length; i++) {
-            int row = critterRows[i];
-            boolean right = (i % 2 == 0);
-            double baseSpeed = 1.4 + 0.2 * i + (level-1) * 0.12;
-            int spawnEvery = Math.max(40 - level*2 - i, 16);
-            spawnEvery = (int)Math.round(clamp(critterDensityScale,0.8,2.0) * spawnEvery);
-            critterLanes.add(new Lane(row*TILE, right ? baseSpeed : -baseSpeed, spawnEvery));
-        }
-
-        // Seed road vehicles (car, carRed, truck)
-        for (Lane lane : roadLanes) {
-            int seeded = 0, attempts = 0;
-            while (seeded < 2 && attempts++ < 40) {
-                int y = lane.y + 5;
-                boolean truck = rng.nextDouble() < 0.33;
-                int w = truck ? TRUCK_W : CAR_W;
-                int h = truck ? TRUCK_H : CAR_H;
-                int x = rng.nextInt(WIDTH - w);
-                double sp = truck
-                        ? vary(Math.copySign(Math.abs(lane.speed*0.85), lane.speed), 0.25)
-                        : vary(lane.speed, 0.25);
-
-                if (laneHasSpaceFor(lane, x, y, w, h, VEHICLE_MIN_GAP)) {
-                    if (truck) trucks.add(new Truck(x, y, w, h, sp));
-                    else {
-                        Car.Kind kind = (rng.nextDouble() < 0.5) ? Car.Kind.RED : Car.Kind.NORMAL;
-                        cars.add(new Car(x, y, w, h, sp, kind));
-                    }
-                    seeded++;
-                }
-            }
-        }
-
-        // Seed logs
-        for (Lane lane : riverLanes) {
-            int toPlace = 2, attempts = 0;
-            while (toPlace > 0 && attempts++ < 20) {
-                int y = lane.y + 6, x = rng.nextInt(WIDTH-LOG_W);
-                if (logLaneHasSpaceFor(lane, x, y, LOG_W, LOG_H, TILE/2)) {
-                    logs.add(new Log(x, y, LOG_W, LOG_H, lane.speed));
-                    toPlace--;
-                }
-            }
-        }
 
-        // Seed critters (level 1 bottom)
-        for (Lane lane : critterLanes) {
-            int toPlace = 2, attempts = 0;
-            while (toPlace > 0 && attempts++ < 20) {
-                boolean bird = rng.nextBoolean();
-                if (bird) {
-                    int y = lane.y + 7, x = rng.nextInt(WIDTH-BIRD_W);
-                    if (critterLaneHasSpaceFor(lane, x, y, BIRD_W, BIRD_H, CRITTER_MIN_GAP)) {
-                        Bird b = new Bird(x, y, BIRD_W, BIRD_H, lane.speed*1.1);
-                        birds.add(b);
-                    }
-                } else {
-                    int y = lane.y + 6, x = rng.nextInt(WIDTH-SNAKE_W);
-                    if (critterLaneHasSpaceFor(lane, x, y, SNAKE_W, SNAKE_H, CRITTER_MIN_GAP)) {
-                        Snake s = new Snake(x, y, SNAKE_W, SNAKE_H, lane.speed*0.9);
-                        snakes.add(s);
-                    }
-                }
-                toPlace--;
-            }
-        }
+    @Override public void stopped() { saveRecording(); }
 
-        resetFrog(false);
+    // Paint benchmarks: draw the playfield with SoftRaster regardless of -Dfrogger.raster
+    void useSoftRaster(int threads) {
+        if (raster != null) raster.close();
+        raster = new SoftRaster(threads);
     }
 
-    private void resetFrog(boolean keepRowBonus) {
-        if (!keepRowBonus) bestRowY = (ROWS-1)*TILE + 4;
-        frog.x = WIDTH/2 - TILE/2;
-        frog.y = (ROWS-1)*TILE + 4;
-        frog.alive = true;
-        repaint();
+    // -Dfrogger.seed pins the game; otherwise every game gets a fresh, recordable seed
+    private static long newSeed() {
+        Long pinned = Long.getLong("frogger.seed");
+        return pinned != null ? pinned : new java.util.Random().nextLong();
     }
 
-    private void startTransitionTo(int nextLvl) {
-        nextLevelPending = nextLvl;
-        transitionTicks   = TRANSITION_FRAMES;
+    // Writes the recording off the loop thread, named by time and seed; once,
+    // whether the game ended or the loop was stopped first
+    private synchronized void saveRecording() {
+        if (recording == null || recording.finished()) return;
+        recording.finish(sim);
+        String name = String.format("game-%1$tY%1$tm%1$td-%1$tH%1$tM%1$tS-%2$016x.frin", new java.util.Date(), recording.seed);
+        java.nio.file.Path file = java.nio.file.Paths.get(System.getProperty("frogger.record"), name);
+        Thread t = new Thread(() -> {
+            try { recording.write(file); }
+            catch (java.io.IOException e) { System.err.println("recording: " + file + ": " + e.getMessage()); }
+        }, "frogger-recording-writer");
+        t.start();
+    }
+    @Override public void addNotify() {
+        super.addNotify();
+        if (canvas != null) canvas.requestFocusInWindow();
+        else requestFocusInWindow();
     }
 
-    // Main update
-    @Override public void actionPerformed(ActionEvent e) {
-        if (transitionTicks > 0) {
-            transitionTicks--;
-            if (transitionTicks == 0 && nextLevelPending != 0) {
-                level = nextLevelPending;
-                nextLevelPending = 0;
-                setupLevel();
-            }
-            repaint();
-            return;
-        }
-
-        if (paused) { repaint(); return; }
-        ticks++;
-
-        // overlay tick (level-up)
-        if (levelUpFlashTicks > 0) levelUpFlashTicks--;
-
-        // combo window timer
-        if (combo > 0) {
-            comboTimer--;
-            if (comboTimer <= 0) combo = 0;
-        }
-
-        if (!levelTwo && !levelThree && !levelFour) {
-            // LEVEL 1 
-            for (Lane lane : roadLanes) {
-                if (ticks % lane.spawnEveryTicks == 0) {
-                    boolean truck = rng.nextDouble() < 0.33;
-                    int y = lane.y + 5;
-
-                    if (truck) {
-                        int w=TRUCK_W, h=TRUCK_H;
-                        boolean right = lane.speed > 0;
-                        int x = right ? -w - 12 : WIDTH + 12;
-                        double sp = vary(Math.copySign(Math.abs(lane.speed*0.85), lane.speed), 0.25);
-                        int enterX = right ? -w : WIDTH;
-                        if (laneHasSpaceFor(lane, enterX, y, w, h, VEHICLE_MIN_GAP))
-                            trucks.add(new Truck(x, y, w, h, sp));
-                    } else {
-                        int w=CAR_W, h=CAR_H;
-                        boolean right = lane.speed > 0;
-                        int x = right ? -w - 12 : WIDTH + 12;
-                        Car.Kind kind = (rng.nextDouble()<0.5) ? Car.Kind.RED : Car.Kind.NORMAL;
-                        double sp = vary(lane.speed, 0.25);
-                        int enterX = right ? -w : WIDTH;
-                        if (laneHasSpaceFor(lane, enterX, y, w, h, VEHICLE_MIN_GAP))
-                            cars.add(new Car(x, y, w, h, sp, kind));
-                    }
-                }
-            }
-
-            for (Lane lane : riverLanes) {
-                if (ticks % lane.spawnEveryTicks == 0 && rng.nextDouble() < 0.75) {
-                    int y = lane.y + 6;
-                    int x = lane.speed > 0 ? -LOG_W - 10 : WIDTH + 10;
-                    if (logLaneHasSpaceFor(lane, x, y, LOG_W, LOG_H, TILE/3))
-                        logs.add(new Log(x, y, LOG_W, LOG_H, lane.speed));
-                }
-            }
-
-            for (Lane lane : critterLanes) {
-                if (ticks % lane.spawnEveryTicks == 0 && rng.nextDouble() < 0.65) {
-                    boolean bird = rng.nextBoolean();
-                    if (bird) {
-                        int y = lane.y + 7;
-                        int x = lane.speed > 0 ? -BIRD_W - 10 : WIDTH + 10;
-                        if (critterLaneHasSpaceFor(lane, x, y, BIRD_W, BIRD_H, CRITTER_MIN_GAP)) {
-                            Bird b = new Bird(x, y, BIRD_W, BIRD_H, lane.speed*1.1);
-                            birds.add(b);
-                        }
-                    } else {
-                        int y = lane.y + 6;
-                        int x = lane.speed > 0 ? -SNAKE_W - 10 : WIDTH + 10;
-                        if (critterLaneHasSpaceFor(lane, x, y, SNAKE_W, SNAKE_H, CRITTER_MIN_GAP)) {
-                            Snake s = new Snake(x, y, SNAKE_W, SNAKE_H, lane.speed*0.9);
-                            snakes.add(s);
-                        }
-                    }
-                }
-            }
-        } else if (levelTwo) {
-            // LEVEL 2: kill 30 critters
-            maintainCritterPopulation();
-        } else if (levelThree) {
-            // LEVEL 3: vehicles only, reach top to win
-            for (Lane lane : roadLanes) {
-                if (ticks % lane.spawnEveryTicks == 0 && rng.nextDouble() < L3_SPAWN_CHANCE) {
-                    boolean truck = rng.nextDouble() < 0.30;
-                    int y = lane.y + 5;
-                    if (truck) {
-                        int w=TRUCK_W,h=TRUCK_H;
-                        boolean right = lane.speed > 0;
-                        int x = right ? -w - 12 : WIDTH + 12;
-                        double sp = vary(Math.copySign(Math.abs(lane.speed*0.9), lane.speed), 0.25);
-                        int enterX = right ? -w : WIDTH;
-                        if (laneHasSpaceFor(lane, enterX, y, w, h, VEHICLE_MIN_GAP))
-                            trucks.add(new Truck(x, y, w, h, sp));
-                    } else {
-                        int w=CAR_W,h=CAR_H;
-                        boolean right = lane.speed > 0;
-                        int x = right ? -w - 12 : WIDTH + 12;
-                        Car.Kind kind = (rng.nextDouble()<0.5) ? Car.Kind.RED : Car.Kind.NORMAL;
-                        double sp = vary(lane.speed, 0.25);
-                        int enterX = right ? -w : WIDTH;
-                        if (laneHasSpaceFor(lane, enterX, y, w, h, VEHICLE_MIN_GAP))
-                            cars.add(new Car(x, y, w, h, sp, kind));
-                    }
-                }
-            }
-        } else if (levelFour) {
-            // LEVEL 4: logs spawn lighter 
-            for (Lane lane : riverLanes) {
-                if (ticks % lane.spawnEveryTicks == 0 && rng.nextDouble() < L4_SPAWN_CHANCE) {
-                    int y = lane.y + 6;
-                    int x = lane.speed > 0 ? -LOG_W - 10 : WIDTH + 10;
-                    if (logLaneHasSpaceFor(lane, x, y, LOG_W, LOG_H, TILE/3))
-                        logs.add(new Log(x, y, LOG_W, LOG_H, lane.speed));
-                }
-            }
-        }
-
-        // Move actors
-        cars.forEach(Car::update);
-        trucks.forEach(Truck::update);
-        logs.forEach(Log::update);
-        birds.forEach(Bird::update);
-        snakes.forEach(Snake::update);
-
-        // Level 2 extra motion: vertical wiggle + occasional horizontal flip
-        if (levelTwo) {
-            for (Bird b : birds) {
-                Lane ln = ownerLane.get(b);
-                if (ln != null) {
-                    int dir = vdir.getOrDefault(b, 1);
-                    b.y += dir * V_SPEED;
-                    int minY = ln.y + 2;
-                    int maxY = ln.y + TILE - b.h - 2;
-                    if (b.y < minY) { b.y = minY; dir = 1; }
-                    else if (b.y > maxY) { b.y = maxY; dir = -1; }
-                    vdir.put(b, dir);
-                    if (rng.nextDouble() < FLIP_CHANCE) b.speed = -b.speed;
-                }
-            }
-            for (Snake s : snakes) {
-                Lane ln = ownerLane.get(s);
-                if (ln != null) {
-                    int dir = vdir.getOrDefault(s, 1);
-                    s.y += dir * (V_SPEED * 0.9);
-                    int minY = ln.y + 2;
-                    int maxY = ln.y + TILE - s.h - 2;
-                    if (s.y < minY) { s.y = minY; dir = 1; }
-                    else if (s.y > maxY) { s.y = maxY; dir = -1; }
-                    vdir.put(s, dir);
-                    if (rng.nextDouble() < FLIP_CHANCE) s.speed = -s.speed;
-                }
-            }
-        }
-
-        // Keep spacing for road vehicles
-        if (!levelTwo && !levelFour) resolveVehicleGapsSingleTrack();
-
-        // Projectiles, collisions, puffs
-        if (levelTwo || levelThree) {
-            for (Projectile p : shots) p.update();
-
-            // Projectile collisions
-            for (Iterator<Projectile> itP = shots.iterator(); itP.hasNext();) {
-                Projectile p = itP.next();
-                Rectangle pb = p.bounds();
-                boolean hit = false;
-
-                if (levelTwo) {
-                    // Critters only in L2
-                    for (Iterator<Bird> itB = birds.iterator(); itB.hasNext();) {
-                        Bird b = itB.next();
-                        if (b.bounds().intersects(pb)) {
-                            itB.remove(); hit = true;
-                            spawnPuff(b.x + b.w/2.0, b.y + b.h/2.0);
-                            awardKillScore();
-                            l2KillCount++;
-                            break;
-                        }
-                    }
-                    if (!hit) {
-                        for (Iterator<Snake> itS = snakes.iterator(); itS.hasNext();) {
-                            Snake s = itS.next();
-                            if (s.bounds().intersects(pb)) {
-                                itS.remove(); hit = true;
-                                spawnPuff(s.x + s.w/2.0, s.y + s.h/2.0);
-                                awardKillScore();
-                                l2KillCount++;
-                                break;
-                            }
-                        }
-                    }
-                } else if (levelThree) {
-                    // Vehicles only in L3
-                    for (Iterator<Car> itC = cars.iterator(); itC.hasNext();) {
-                        Car c = itC.next();
-                        if (c.bounds().intersects(pb)) {
-                            itC.remove(); hit = true;
-                            spawnPuff(c.x + c.w/2.0, c.y + c.h/2.0);
-                            awardKillScore();
-                            break;
-                        }
-                    }
-                    if (!hit) {
-                        for (Iterator<Truck> itT = trucks.iterator(); itT.hasNext();) {
-                            Truck t = itT.next();
-                            if (t.bounds().intersects(pb)) {
-                                itT.remove(); hit = true;
-                                spawnPuff(t.x + t.w/2.0, t.y + t.h/2.0);
-                                awardKillScore();
-                                break;
-                            }
-                        }
-                    }
-                }
-
-                if (hit) {
-                    itP.remove();
-                    if (levelTwo && l2KillCount >= L2_KILL_TARGET &&
-                            nextLevelPending == 0 && transitionTicks == 0) {
-                        startTransitionTo(3);
-                        repaint();
-                        return;
-                    }
-                }
-            }
-
-            // remove off-screen bullets
-            shots.removeIf(p -> p.offscreen(WIDTH, HEIGHT));
-
-            // frog vs critter (dangerous) — only in L2
-            if (levelTwo) {
-                Rectangle fr2 = frog.bounds();
-                for (Bird b : birds)   if (b.bounds().intersects(fr2)) { die(); repaint(); return; }
-                for (Snake s : snakes) if (s.bounds().intersects(fr2)) { die(); repaint(); return; }
-            }
-
-            // update puffs
-            puffs.removeIf(p -> !p.update());
-        }
-
-        // Trim off-screen actors
-        cars.removeIf(c -> c.x < -c.w - 60 || c.x > WIDTH + 60);
-        trucks.removeIf(t -> t.x < -t.w - 60 || t.x > WIDTH + 60);
-        logs.removeIf(l -> l.x < -l.w - 60 || l.x > WIDTH + 60);
-        birds.removeIf(b -> b.x < -b.w - 60 || b.x > WIDTH + 60);
-        snakes.removeIf(s -> s.x < -s.w - 60 || s.y > HEIGHT + 60);
-
-        frog.update();
-
-        // Up-row bonus (only Level 1)
-        if (!levelTwo && !levelThree && !levelFour && frog.y < bestRowY) {
-            int rowsUp = (bestRowY - frog.y) / TILE;
-            if (rowsUp > 0) { score += rowsUp * 10; bestRowY = frog.y; checkLevelUp(); }
-        }
-
-        if (!levelTwo && !levelThree && !levelFour) {
-            // Level 1 collisions
-            Rectangle fr = frog.bounds();
-            for (Car c : cars)    if (c.bounds().intersects(fr)) { die(); repaint(); return; }
-            for (Truck t : trucks) if (t.bounds().intersects(fr)) { die(); repaint(); return; }
-            for (Bird b : birds)   if (b.bounds().intersects(fr)) { die(); repaint(); return; }
-            for (Snake s : snakes) if (s.bounds().intersects(fr)) { die(); repaint(); return; }
-
-            // River (must be on a log)
-            boolean inRiver = frog.y >= 2*TILE && frog.y < 5*TILE;
-            if (inRiver) {
-                boolean onLog = false; double carry = 0;
-                for (Log l : logs) if (l.bounds().intersects(fr)) { onLog = true; carry = l.speed; break; }
-                if (!onLog) { die(); repaint(); return; }
-                frog.x += carry; frog.clampToBoard(WIDTH);
-            }
-
-            // Reached goal > Level 2
-            if (frog.y <= TILE) {
-                score += 100;
-                checkLevelUp();
-                startTransitionTo(2);
-                repaint();
-                return;
-            }
-        } else if (levelThree) {
-            // Level 3 frog vs vehicles + reach top to go to Level 4
-            Rectangle fr = frog.bounds();
-            for (Car c : cars)    if (c.bounds().intersects(fr)) { die(); repaint(); return; }
-            for (Truck t : trucks)if (t.bounds().intersects(fr)) { die(); repaint(); return; }
-
-            // Win by reaching top (like Level 1)
-            if (frog.y <= TILE) {
-                startTransitionTo(4);
-                repaint();
-                return;
-            }
-        } else if (levelFour) {
-            // Level 4 river (includes bottom-most water row)
-            Rectangle fr = frog.bounds();
-            boolean inRiver = frog.y >= 3*TILE && frog.y < (ROWS-2)*TILE;
-            if (inRiver) {
-                boolean onLog = false; double carry = 0;
-                for (Log l : logs) if (l.bounds().intersects(fr)) { onLog=true; carry=l.speed; break; }
-                if (!onLog) { die(); repaint(); return; }
-                frog.x += carry; frog.clampToBoard(WIDTH);
-            }
-            // L4 win at top
-            if (frog.y <= TILE) { if (listener != null) listener.onGameOver(score + 250, playerName); return; }
-        }
-
+    // No usable BufferStrategy (EDT): drop the canvas and paint through Swing
+    private void fallbackToSwing() {
+        renderer = null;
+        if (canvas != null) { remove(canvas); canvas = null; }
+        revalidate();
+        requestFocusInWindow();
         repaint();
     }
 
-    //Maintain 15–20 critters on-screen for L2
-    private void maintainCritterPopulation() {
-        int alive = birds.size() + snakes.size();
-
-        for (Lane lane : critterLanes) {
-            if (alive >= CRITTER_MAX_ONSCREEN) break;
-
-            boolean forceSpawn = (alive < CRITTER_MIN_ONSCREEN);
-            boolean tickOK = (ticks % lane.spawnEveryTicks == 0) && rng.nextDouble() < L2_SPAWN_CHANCE;
+    private static double clamp(double v,double a,double b){ return Math.max(a, Math.min(b, v)); }
 
-            if (forceSpawn || tickOK) {
-                int spawnsThisTick = 1 + ((forceSpawn && rng.nextDouble() < L2_DOUBLE_CHANCE) ? 1 : 0);
-                while (spawnsThisTick-- > 0 && alive < CRITTER_MAX_ONSCREEN) {
-                    boolean birdPick = rng.nextBoolean();
-                    if (birdPick) {
-                        int y = lane.y + 7;
-                        int x = lane.speed > 0 ? -BIRD_W - 10 : WIDTH + 10;
-                        if (critterLaneHasSpaceFor(lane, x, y, BIRD_W, BIRD_H, CRITTER_MIN_GAP)) {
-                            Bird b = new Bird(x, y, BIRD_W, BIRD_H, lane.speed);
-                            birds.add(b);
-                            ownerLane.put(b, lane);
-                            vdir.put(b, rng.nextBoolean()?1:-1);
-                            alive++;
-                        }
-                    } else {
-                        int y = lane.y + 6;
-                        int x = lane.speed > 0 ? -SNAKE_W - 10 : WIDTH + 10;
-                        if (critterLaneHasSpaceFor(lane, x, y, SNAKE_W, SNAKE_H, CRITTER_MIN_GAP)) {
-                            Snake s = new Snake(x, y, SNAKE_W, SNAKE_H, lane.speed);
-                            snakes.add(s);
-                            ownerLane.put(s, lane);
-                            vdir.put(s, rng.nextBoolean()?1:-1);
-                            alive++;
-                        }
-                    }
-                }
-            }
+    // Main update (one fixed tick, called from the loop thread)
+    @Override public void step() {
+        int level = sim.level();
+        long t0 = System.nanoTime();
+        advance();
+        metrics.tick(level).record(System.nanoTime() - t0);
+        sim.census(census);
+        for (int k = 0; k < census.length; k++) metrics.census(level, k).record(census[k]);
+
+        // Hand the result to App on the EDT, once
+        if (sim.isOver() && !overSent) {
+            overSent = true;
+            int finalScore = sim.finalScore();
+            if (listener != null) SwingUtilities.invokeLater(() -> listener.onGameOver(finalScore, playerName));
         }
     }
 
-    //scoring helpers
-    private void awardKillScore() {
-        combo = Math.min(9, combo + 1);
-        comboTimer = COMBO_WINDOW_TICKS;
-        score += KILL_SCORE + combo * 5;
-        checkLevelUp();
-    }
-    private void spawnPuff(double x, double y) { for (int i=0;i<3;i++) puffs.add(new Puff(x, y)); }
-
-    private void checkLevelUp() {
-        // Level 1  > 2 at 1000, 2 > 3 at 3000; cap at 3
-        int newLevel = playerLevel;
-
-        if (score >= LEVEL3_THRESHOLD) {
-            newLevel = 3;
-        } else if (score >= LEVEL2_THRESHOLD) {
-            newLevel = 2;
+    // Applies this tick's input (keyboard, or the recording in replay) and steps the simulation
+    private void advance() {
+        input.clear();
+        Byte action;
+        if (replay != null) {
+            pendingInput.clear();
+            if (!replay.hasNext()) return;   // recording over: hold the last frame
+            replay.next(input);
+            sim.step(input);
+            if (!replay.verify(sim) && replay.divergedAt() == replay.step())
+                System.err.println("replay: diverged from the recording by step " + replay.step());
         } else {
-            newLevel = 1;
+            while ((action = pendingInput.poll()) != null) input.add(action);
+            if (recording != null && !recording.finished()) recording.record(input);
+            sim.step(input);
+            if (recording != null && !recording.finished()) {
+                recording.stepped(sim);
+                if (sim.isOver()) saveRecording();
+            }
         }
+    }
 
-        if (newLevel > 3) newLevel = 3;
-
-        if (newLevel > playerLevel) {
-            playerLevel = newLevel;
-            justLeveledTo = playerLevel;
-            levelUpFlashTicks = LEVELUP_FLASH_FRAMES;
+    // frame publishing (loop thread)
+    @Override public void publish(long stepNanos) {
+        sim.capture(frames.back(), stepNanos);
+        dirty.update(frames.back());
+        Rectangle m = metricsArea;
+        if (showMetrics && m != null) dirty.add(m.x, m.y, m.width, m.height);
+        frames.publish();
+        // Paused or between levels: the screen already shows this frame
+        if (dirty.isEmpty()) return;
+        // Active mode presents on its own cadence
+        if (renderer != null) { changed.set(true); return; }
+        boolean schedule;
+        synchronized (pending) {
+            schedule = pending.isEmpty();
+            pending.add(dirty);
+        }
+        if (schedule) SwingUtilities.invokeLater(this::paintDamage);
+    }
 
-            // Auto-select newly unlocked fire mode
-            if (playerLevel >= 3)       fireMode = FireMode.NOVA;
-            else if (playerLevel == 2)  fireMode = FireMode.SPREAD;
-            else                        fireMode = FireMode.SINGLE;
+    // EDT: paints everything published since the last call
+    private void paintDamage() {
+        int n;
+        synchronized (pending) {
+            n = pending.rects();
+            if (damage.length < n) {
+                damage = java.util.Arrays.copyOf(damage, n);
+                for (int i = 0; i < n; i++) if (damage[i] == null) damage[i] = new Rectangle();
+            }
+            for (int i = 0; i < n; i++) pending.rect(i, damage[i]);
+            pending.clear();
         }
+        for (int i = 0; i < n; i++) if (!damage[i].isEmpty()) paintImmediately(damage[i]);
     }
 
-    //death / gameover 
-    private void die() {
-        if (!frog.alive) return;
-        frog.alive = false; lives--; score = Math.max(0, score - 25);
-        combo = 0; comboTimer = 0;
-        // No level down on death; keep playerLevel
-        if (lives <= 0) {
-            if (listener != null) listener.onGameOver(score, playerName);
-            return;
-        }
-        setupLevel();
+    // Active mode: a new frame to show, or actors still gliding between ticks
+    @Override public boolean frameChanged() {
+        if (changed.getAndSet(false) || showMetrics) return true;
+        Frame f = frames.latest();
+        return f != null && f.advancing;
     }
 
-    // paint 
+    // paint (reads only the last published Frame)
     @Override protected void paintComponent(Graphics g0) {
         super.paintComponent(g0);
-        Graphics2D g = (Graphics2D) g0;
+        if (renderer == null) paintFrame((Graphics2D) g0);
+    }
+
+    // Draws the newest published Frame (EDT, or the render thread in active mode).
+    // Swing hands in a clip around the damage; anything outside it is skipped
+    @Override public void paintFrame(Graphics2D g) {
+        Frame f = frames.latest();
+        if (f == null) return;
+        long t0 = System.nanoTime();
+        Flight.Paint ev = Flight.ON ? new Flight.Paint() : null;
+        if (ev != null) ev.begin();
         g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
 
-        //  HUD BAR
-        g.setColor(new Color(22,18,32));
-        g.fillRect(0,0,WIDTH,TILE);
-        g.setColor(Color.WHITE);
-        g.setFont(g.getFont().deriveFont(Font.BOLD,18f));
-
+        // How far we are between the captured tick and the next one
+        double alpha = f.advancing ? clamp((System.nanoTime() - f.stepNanos) / (double) GameLoop.STEP_NANOS, 0, 1) : 1;
 
-        String timeStr = "";
+        // HUD bar, tile rows and road marks in one blit; with the software
+        // raster, actors, puffs and the frog are already in that image
+        if (raster != null) {
+            raster.render(g, f, alpha, backgroundFor(f), atlas);
+            g.drawImage(raster.image, 0, 0, null);
+        } else {
+            g.drawImage(backgroundFor(f).image, 0, 0, null);
+        }
+        textFor(g);
 
         // DO NOT CHANGE HUD LINES
-        String hdr = "Level: "+level+" | Lives: "+lives+" | Score: "+score+" | Player: "+playerName+ timeStr;
-        if (paused) hdr += "   [PAUSED]";
-        g.drawString(hdr, 10, 26);
+        // "Level: N | Lives: N | Score: N | Player: name", put together from cached pieces
+        if (g.hitClip(0, 0, WIDTH, TILE)) {
+            int x = hudText.draw(g, "Level: ", 10, 26);
+            x = hudText.drawNumber(g, f.level, x, 26);
+            x = hudText.draw(g, " | Lives: ", x, 26);
+            x = hudText.drawNumber(g, f.lives, x, 26);
+            x = hudText.draw(g, " | Score: ", x, 26);
+            x = hudText.drawNumber(g, f.score, x, 26);
+            x = hudText.draw(g, hudPlayer, x, 26);
+            if (f.paused) hudText.draw(g, "   [PAUSED]", x, 26);
+        }
         // =======================
 
-        if (levelThree) {
-            // Level 3: goal at top/bottom rows, roads in the middle
-            for (int r = 1; r < ROWS; r++) {
-                boolean topGoal = (r == 1 || r == 2);
-                boolean bottomGoal = (r == ROWS - 2 || r == ROWS - 1);
-                if (topGoal || bottomGoal) drawRow(g, r, Assets.tileGoal(), new Color(72,160,72));
-                else                        drawRow(g, r, Assets.tileRoad(), new Color(56,56,56));
-            }
-
-            // Road markings
-            BufferedImage mark = Assets.tileRoadMark();
-            if (mark != null) {
-                for (Lane lane : roadLanes)
-                    for (int x=0;x<WIDTH;x+=TILE)
-                        g.drawImage(mark, x, lane.y + TILE/2 - 2, TILE, 4, null);
-            } else {
-                g.setColor(new Color(236,214,96));
-                for (Lane lane : roadLanes)
-                    for (int x=0;x<WIDTH;x+=60) g.fillRect(x, lane.y + TILE/2 - 1, 30, 2);
-            }
+        // Actors (puffs only exist on the shooting levels)
+        if (raster == null) {
+            drawActors(g, f, alpha);
+            drawPuffs(g, f);
+            drawFrog(g, f);
+        }
 
-            // Actors (no critters)
-            trucks.forEach(t -> t.draw(g));
-            cars.forEach(c -> c.draw(g));
-            for (Projectile p : shots) p.draw(g);
-            for (Puff pf : puffs) pf.draw(g);
-            frog.draw(g);
+        if (f.showHelp && g.hitClip(WIDTH/2 - HELP_W/2, HEIGHT/2 - HELP_H/2, HELP_W + 1, HELP_H + 1))
+            drawHelpBox(g, f.help, HELP_W, HELP_H);
 
-            // (Help text left)
-            if (showHelp) {
-                String[] lines = {
-                    "Level 3 — Traffic Survival",
-                    "Reach the top to advance!",
-                    "WASD: move  |  Arrow keys: fire  |  1/2: fire mode",
-                    "|  H: help  |  ESC: menu"
-                };
-                drawHelpBox(g, lines, 400, 120);
-            }
+        // Level-up overlay
+        drawLevelUpOverlay(g, f);
 
-            // Level-up overlay
-            drawLevelUpOverlay(g);
+        if (f.transitionTicks > 0) drawTransitionOverlay(g, (f.nextLevelPending != 0) ? f.nextLevelPending : (f.level+1));
 
-            if (transitionTicks > 0) drawTransitionOverlay(g, (nextLevelPending != 0) ? nextLevelPending : (level+1));
-            return;
+        if (showMetrics) drawMetrics(g, f.level);
+        metrics.paint(f.level).record(System.nanoTime() - t0);
+        if (ev != null) {
+            ev.level = f.level;
+            ev.actors = f.count;
+            ev.puffs = f.puffCount;
+            ev.commit();
         }
+    }
 
-        if (levelTwo) {
-            // Level 2 background
-            for (int r = 1; r < ROWS; r++) {
-                if (r <= 2 || r >= ROWS - 2) {
-                    drawRow(g, r, Assets.tileuglyGrass(), new Color(120,160,80));
-                } else {
-                    drawRow(g, r, Assets.tileGrass(), new Color(72,160,72));
-                }
-            }
+    // F3 overlay: this level's p50/p99/max, refreshed four times a second
+    private void drawMetrics(Graphics2D g, int level) {
+        long now = System.nanoTime();
+        if (now - metricsAt > 250_000_000L) {
+            metricsAt = now;
+            String[] lines = new String[5 + Metrics.PHASES.length];
+            int i = 0;
+            lines[i++] = String.format("%-10s %7s %7s %7s  (us)", "L" + level, "p50", "p99", "max");
+            lines[i++] = timing("tick", metrics.tick(level));
+            for (int p = 0; p < Metrics.PHASES.length; p++) lines[i++] = timing("  " + Metrics.PHASES[p], metrics.phase(level, p));
+            lines[i++] = timing("paint", metrics.paint(level));
+            lines[i++] = timing("gc", metrics.gc());
+            StringBuilder c = new StringBuilder();
+            for (int k = 0; k < Metrics.KINDS.length; k++) {
+                Histogram h = metrics.census(level, k);
+                c.append(Metrics.KINDS[k]).append(' ').append(h.percentile(50)).append('/').append(h.max()).append("  ");
+            }
+            lines[i] = c.toString();
+            metricsLines = lines;
+            metricsArea = null;
+        }
+        g.setFont(METRICS_FONT);
+        FontMetrics fm = g.getFontMetrics();
+        int lh = fm.getHeight(), w = 0;
+        for (String ln : metricsLines) w = Math.max(w, fm.stringWidth(ln));
+        int x = 8, y = HEIGHT - metricsLines.length * lh - 12;
+        if (metricsArea == null) metricsArea = new Rectangle(x - 4, y - 4, w + 9, metricsLines.length * lh + 9);
+        g.setColor(METRICS_BG);
+        g.fillRect(x - 4, y - 4, w + 8, metricsLines.length * lh + 8);
+        g.setColor(METRICS_FG);
+        for (int i = 0; i < metricsLines.length; i++) g.drawString(metricsLines[i], x, y + (i + 1) * lh - fm.getDescent());
+    }
 
-            birds.forEach(b -> b.draw(g));
-            snakes.forEach(s -> s.draw(g));
-            for (Projectile p : shots) p.draw(g);
-            for (Puff pf : puffs) pf.draw(g);
-            frog.draw(g);
+    private static String timing(String label, Histogram h) {
+        return String.format("%-10s %7.0f %7.0f %7.0f  n=%d", label,
+                h.percentile(50) / 1e3, h.percentile(99) / 1e3, h.max() / 1e3, h.count());
+    }
 
-            // (Help text left unchanged)
-            if (showHelp) {
-                String[] lines = {
-                    "Level 2 — Critter Survival",
-                    "KILL! KILL! KILL!  (30 critters to advance)",
-                    "WASD: move  |  Arrow keys: fire  |  1/2: fire mode",
-                    "|  H: help  |  ESC: menu"
-                };
-                drawHelpBox(g, lines, 400, 120);
-            }
+    // Text caches follow the screen like the background; fonts come from the
+    // Graphics' own font, the one every style used to be derived from per frame
+    private void textFor(Graphics2D g) {
+        if (hudText != null && hudText.matches(g.getDeviceConfiguration())) return;
+        Font base = g.getFont();
+        hudText     = new TextCache(base.deriveFont(Font.BOLD, 18f), Color.WHITE, g);
+        helpText    = new TextCache(base.deriveFont(Font.PLAIN, 16f), Color.WHITE, g);
+        titleText   = new TextCache(base.deriveFont(Font.BOLD, 36f), Color.WHITE, g);
+        subText     = new TextCache(base.deriveFont(Font.PLAIN, 18f), Color.WHITE, g);
+        flashTitle  = new TextCache(base.deriveFont(Font.BOLD, 40f), FLASH_TEXT, g);
+        flashNumber = new TextCache(base.deriveFont(Font.BOLD, 28f), FLASH_TEXT, g);
+    }
 
-            // Level-up overlay
-            drawLevelUpOverlay(g);
+    // Rebuilt only when the level (or the screen the panel is on) changes
+    private LevelBackground backgroundFor(Frame f) {
+        Canvas c = canvas;
+        GraphicsConfiguration gc = (c != null) ? c.getGraphicsConfiguration() : getGraphicsConfiguration();
+        if (background == null || !background.matches(f.rows, f.roadLaneY, f.roadLaneCount, gc))
+            background = new LevelBackground(f.rows, f.roadLaneY, f.roadLaneCount, getBackground(), gc);
+        return background;
+    }
 
-            if (transitionTicks > 0) drawTransitionOverlay(g, (nextLevelPending != 0) ? nextLevelPending : (level+1));
-            return;
+    // Actors are drawn between their previous and current tick positions
+    private void drawActors(Graphics2D g, Frame f, double alpha) {
+        for (int i = 0; i < f.count; i++) {
+            int x = (int)Math.round(f.fromX[i] + (f.x[i] - f.fromX[i]) * alpha);
+            int y = (int)Math.round(f.fromY[i] + (f.y[i] - f.fromY[i]) * alpha);
+            if (!g.hitClip(x - 1, y - 1, f.w[i] + 2, f.h[i] + 2)) continue;
+            drawActor(g, atlas, f.kind[i], x, y, f.w[i], f.h[i], f.right[i]);
         }
+    }
 
-        if (levelFour) {
-            // Level 4: ugly grass borders + water in middle
-            for (int r = 1; r < ROWS; r++) {
-                if (r <= 2 || r >= ROWS - 2) {
-                    drawRow(g, r, Assets.tileuglyGrass(), new Color(120,160,80));
-                } else {
-                    drawRow(g, r, Assets.tileWater(), new Color(40,88,152));
-                }
-            }
-            logs.forEach(l -> l.draw(g));
-            for (Projectile p : shots) p.draw(g);
-            for (Puff pf : puffs) pf.draw(g);
-            frog.draw(g);
-
-            // (Help text)
-            if (showHelp) {
-                String[] lines = {
-                    "Level 4 — River Run",
-                    "Ride logs across the water to the top.",
-                    "WASD: move  |  Arrow keys: fire  |  1/2: fire mode",
-                    "|  H: help  |  ESC: menu"
-                };
-                drawHelpBox(g, lines, 400, 120);
+    // Sprites are pre-scaled and pre-flipped in the atlas; shapes only when the art is missing
+    private static void drawActor(Graphics2D g, SpriteAtlas atlas, byte kind, int x, int y, int w, int h, boolean right) {
+        int id = SpriteAtlas.actor(kind, right);
+        if (atlas.has(id)) { atlas.draw(g, id, x, y); return; }
+
+        switch (kind) {
+            case Frame.CAR, Frame.CAR_RED -> {
+                g.setColor(kind == Frame.CAR_RED ? CAR_RED : CAR);
+                g.fillRect(x,y,w,h);
+                g.setColor(Color.BLACK); g.drawRect(x,y,w,h);
+            }
+            case Frame.TRUCK -> {
+                g.setColor(TRUCK);
+                g.fillRect(x, y, w, h);
+                g.setColor(Color.BLACK);
+                g.drawRect(x, y, w, h);
+            }
+            case Frame.LOG -> { g.setColor(LOG); g.fillRect(x,y,w,h); g.setColor(Color.BLACK); g.drawRect(x,y,w,h); }
+            case Frame.BIRD -> {
+                g.setColor(BIRD);
+                g.fillOval(x, y, w, h);
+                g.setColor(Color.BLACK);
+                g.drawOval(x, y, w, h);
+            }
+            case Frame.SNAKE -> {
+                g.setColor(SNAKE);
+                g.fillRoundRect(x, y, w, h, 8, 8);
+                g.setColor(Color.BLACK);
+                g.drawRoundRect(x, y, w, h, 8, 8);
+            }
+            case Frame.SHOT -> {
+                g.setColor(SHOT);
+                g.fillOval(x, y, w, h);
+                g.setColor(SHOT_EDGE);
+                g.drawOval(x, y, w, h);
             }
-
-            // Level-up overlay
-            drawLevelUpOverlay(g);
-
-            if (transitionTicks > 0) drawTransitionOverlay(g, (nextLevelPending != 0) ? nextLevelPending : (level+1));
-            return;
         }
+    }
 
-        //  Level 1 drawing
-        drawRow(g, 1, Assets.tileGoal(),  new Color(72,160,72));
-        for (int r=2;r<=4;r++) drawRow(g, r, Assets.tileWater(), new Color(40,88,152));
-        for (int r=6;r<=11;r++) drawRow(g, r, Assets.tileRoad(),  new Color(56,56,56));
-        for (int r=14;r<=16;r++) drawRow(g, r, Assets.tileGrass(), new Color(72,160,72));
-        drawRow(g, ROWS-1, Assets.tileStart(), new Color(72,160,72));
-
-        // Road markings
-        BufferedImage mark = Assets.tileRoadMark();
-        if (mark != null) {
-            for (Lane lane : roadLanes)
-                for (int x=0;x<WIDTH;x+=TILE)
-                    g.drawImage(mark, x, lane.y + TILE/2 - 2, TILE, 4, null);
-        } else {
-            g.setColor(new Color(236,214,96));
-            for (Lane lane : roadLanes)
-                for (int x=0;x<WIDTH;x+=60) g.fillRect(x, lane.y + TILE/2 - 1, 30, 2);
-        }
-
-        // Actors
-        logs.forEach(l -> l.draw(g));
-        trucks.forEach(t -> t.draw(g));
-        cars.forEach(c -> c.draw(g));
-        birds.forEach(b -> b.draw(g));
-        snakes.forEach(s -> s.draw(g));
-        frog.draw(g);
-
-        // (Help text left unchanged)
-        if (showHelp) {
-            String[] lines = {"Level 1 — Why did the frog cross the road?",
-                              "WASD: move  |  Arrow keys: fire  |  1/2: fire mode",  
-                              "|  P: pause  |  H: help  |  ESC: menu",
-                              "Reach the top or press Z to unlock Level 2"};
-            drawHelpBox(g, lines, 400, 120);
+    private static void drawPuffs(Graphics2D g, Frame f) {
+        for (int i = 0; i < f.puffCount; i++) {
+            double r = f.puffR[i];
+            int alpha = Math.max(0, Math.min(255, f.puffLife[i]*12));
+            g.setColor(PUFF[alpha]);
+            int d=(int)(r*2);
+            g.fillOval((int)(f.puffX[i]-r),(int)(f.puffY[i]-r), d,d);
         }
-
-        // Level-up overlay
-        drawLevelUpOverlay(g);
-
-        if (transitionTicks > 0) drawTransitionOverlay(g, (nextLevelPending != 0) ? nextLevelPending : (level+1));
     }
 
-    private void drawRow(Graphics2D g, int row, BufferedImage tile, Color fallback) {
-        int y = row * TILE;
-        if (tile != null) {
-            for (int c=0;c<COLS;c++) g.drawImage(tile, c*TILE, y, TILE, TILE, null);
+    private void drawFrog(Graphics2D g, Frame f) {
+        int id = SpriteAtlas.frog(f.frogFacing);
+        int x = f.frogX, y = f.frogY, w = f.frogW, h = f.frogH;
+        if (atlas.has(id)) {
+            atlas.draw(g, id, x, y);
         } else {
-            g.setColor(fallback);
-            g.fillRect(0, y, WIDTH, TILE);
+            g.setColor(FROG);
+            g.fillOval(x, y, w, h);
+            g.setColor(Color.BLACK);
+            g.drawOval(x, y, w, h);
         }
     }
 
     private void drawHelpBox(Graphics2D g, String[] lines, int w, int h){
         int x=WIDTH/2-w/2, y=HEIGHT/2-h/2;
-        g.setColor(new Color(0,0,0,180)); g.fillRect(x,y,w,h);
+        g.setColor(HELP_BG); g.fillRect(x,y,w,h);
         g.setColor(Color.WHITE); g.drawRect(x,y,w,h);
-        int yy=y+26; g.setFont(g.getFont().deriveFont(Font.PLAIN,16f));
-        for (String line:lines){ g.drawString(line, x+12, yy); yy+=22; }
+        int yy=y+26;
+        for (String line:lines){ helpText.draw(g, line, x+12, yy); yy+=22; }
     }
 
     private void drawTransitionOverlay(Graphics2D g, int nextLvlNumber) {
-        g.setColor(new Color(0,0,0,200));
+        g.setColor(TRANSITION_BG);
         g.fillRect(0, 0, WIDTH, HEIGHT);
-        g.setColor(Color.WHITE);
-        g.setFont(g.getFont().deriveFont(Font.BOLD, 36f));
         String title = "Next Level";
-        FontMetrics fm = g.getFontMetrics();
-        int tx = (WIDTH - fm.stringWidth(title)) / 2;
+        int tx = (WIDTH - titleText.width(title)) / 2;
         int ty = HEIGHT / 2 - 10;
-        g.drawString(title, tx, ty);
+        titleText.draw(g, title, tx, ty);
 
-        g.setFont(g.getFont().deriveFont(Font.PLAIN, 18f));
-        String sub = "Level " + nextLvlNumber;
-        int sx = (WIDTH - g.getFontMetrics().stringWidth(sub)) / 2;
-        g.drawString(sub, sx, ty + 28);
+        // "Level N"
+        int sx = (WIDTH - subText.width("Level ") - subText.numberWidth(nextLvlNumber)) / 2;
+        subText.drawNumber(g, nextLvlNumber, subText.draw(g, "Level ", sx, ty + 28), ty + 28);
     }
 
-    private void drawLevelUpOverlay(Graphics2D g) {
-        if (levelUpFlashTicks <= 0) return;
-        int alpha = (int)(200 * (levelUpFlashTicks / (float)LEVELUP_FLASH_FRAMES));
-        g.setColor(new Color(0, 0, 0, Math.max(80, alpha/2)));
+    private void drawLevelUpOverlay(Graphics2D g, Frame f) {
+        if (f.levelUpFlashTicks <= 0) return;
+        int alpha = (int)(200 * (f.levelUpFlashTicks / (float)GameSimulation.LEVELUP_FLASH_FRAMES));
+        int shade = Math.max(80, alpha/2);
+        g.setColor(SHADE[shade]);
         g.fillRect(0, 0, WIDTH, HEIGHT);
 
-        g.setColor(new Color(255, 255, 120, Math.min(255, 100 + alpha)));
-        g.setFont(g.getFont().deriveFont(Font.BOLD, 40f));
+        // Text is cached opaque and faded in with the composite
+        int fade = Math.min(255, 100 + alpha);
+        Composite c = g.getComposite();
+        g.setComposite(FADE[fade]);
         String title = "Level Up!";
-        FontMetrics fm = g.getFontMetrics();
-        int tx = (WIDTH - fm.stringWidth(title)) / 2;
+        int tx = (WIDTH - flashTitle.width(title)) / 2;
         int ty = HEIGHT / 2 - 10;
-        g.drawString(title, tx, ty);
+        flashTitle.draw(g, title, tx, ty);
 
-        g.setFont(g.getFont().deriveFont(Font.BOLD, 28f));
-        String sub = "" + justLeveledTo;
-        int sx = (WIDTH - g.getFontMetrics().stringWidth(sub)) / 2;
-        g.drawString(sub, sx, ty + 34);
+        int sx = (WIDTH - flashNumber.numberWidth(f.justLeveledTo)) / 2;
+        flashNumber.drawNumber(g, f.justLeveledTo, sx, ty + 34);
+        g.setComposite(c);
     }
 
-    // input
+    // input (EDT): mapped to actions here, applied by the loop thread at the next tick
     @Override public void keyPressed(KeyEvent e) {
-        // Block actions during transition (allow ESC to menu)
-        if (transitionTicks > 0) {
-            if (e.getKeyCode() == KeyEvent.VK_ESCAPE && listener != null) listener.onBackToMenu();
+        // Menu navigation is UI-side and never waits on the simulation
+        if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+            if (listener != null) listener.onBackToMenu();
             return;
         }
-
-        switch (e.getKeyCode()) {
+        if (e.getKeyCode() == KeyEvent.VK_F3) {
+            showMetrics = !showMetrics;
+            if (renderer == null) repaint();
+            else changed.set(true);
+            return;
+        }
+        byte action = switch (e.getKeyCode()) {
             //Movement: WASD only (S moves down)
-            case KeyEvent.VK_A -> frog.nudge(-TILE, 0);
-            case KeyEvent.VK_D -> frog.nudge( TILE, 0);
-            case KeyEvent.VK_W -> frog.nudge(0, -TILE);
-            case KeyEvent.VK_S -> frog.nudge(0,  TILE);  // S moves down
+            case KeyEvent.VK_A -> InputFrame.MOVE_LEFT;
+            case KeyEvent.VK_D -> InputFrame.MOVE_RIGHT;
+            case KeyEvent.VK_W -> InputFrame.MOVE_UP;
+            case KeyEvent.VK_S -> InputFrame.MOVE_DOWN;
 
             //  Arrow keys FIRE in their direction
-            case KeyEvent.VK_LEFT  -> { if (levelTwo || levelThree) fireByCurrentMode(-1,  0); }
-            case KeyEvent.VK_RIGHT -> { if (levelTwo || levelThree) fireByCurrentMode( 1,  0); }
-            case KeyEvent.VK_UP    -> { if (levelTwo || levelThree) fireByCurrentMode( 0, -1); }
-            case KeyEvent.VK_DOWN  -> { if (levelTwo || levelThree) fireByCurrentMode( 0,  1); }
-
-            //Fire mode select (gated by playerLevel)
-            case KeyEvent.VK_1 -> { if (playerLevel >= 1) fireMode = FireMode.SINGLE; }
-            case KeyEvent.VK_2 -> { if (playerLevel >= 2) fireMode = FireMode.SPREAD; }
-            case KeyEvent.VK_3 -> { if (playerLevel >= 3) fireMode = FireMode.NOVA;   }
-
-            // Other controls preserved
-            case KeyEvent.VK_P     -> paused = !paused;
-            case KeyEvent.VK_H     -> showHelp = !showHelp;
-            case KeyEvent.VK_Z     -> {
-                // Skip: L1 -> L2, L2 -> L3, L3 -> L4
-                if (!levelTwo && !levelThree && !levelFour) { startTransitionTo(2); }
-                else if (levelTwo)                           { startTransitionTo(3); }
-                else if (levelThree)                         { startTransitionTo(4); }
-            }
-            case KeyEvent.VK_ESCAPE-> { if (listener != null) listener.onBackToMenu(); }
-        }
+            case KeyEvent.VK_LEFT  -> InputFrame.FIRE_LEFT;
+            case KeyEvent.VK_RIGHT -> InputFrame.FIRE_RIGHT;
+            case KeyEvent.VK_UP    -> InputFrame.FIRE_UP;
+            case KeyEvent.VK_DOWN  -> InputFrame.FIRE_DOWN;
+
+            //Fire mode select
+            case KeyEvent.VK_1 -> InputFrame.MODE_SINGLE;
+            case KeyEvent.VK_2 -> InputFrame.MODE_SPREAD;
+            case KeyEvent.VK_3 -> InputFrame.MODE_NOVA;
+
+            case KeyEvent.VK_P -> InputFrame.PAUSE;
+            case KeyEvent.VK_H -> InputFrame.HELP;
+            case KeyEvent.VK_Z -> InputFrame.SKIP;
+            default -> 0;
+        };
+        if (action != 0) pendingInput.add(action);
     }
     @Override public void keyReleased(KeyEvent e) {}
     @Override public void keyTyped(KeyEvent e) {}
-
-    // fire routing by mode 
-    private void fireByCurrentMode(int dirX, int dirY) {
-        if (fireMode == FireMode.NOVA) fireNova();
-        else fireProjectile(dirX, dirY); // SINGLE or SPREAD uses directional fire
-    }
-
-    //  shooting (SINGLE/SPREAD) 
-    private void fireProjectile(int dirX, int dirY) {
-        int baseCooldown = 10;
-        int cooldown = baseCooldown;
-        if (fireMode == FireMode.SPREAD) {
-            // slowed further
-            cooldown = 16;
-        }
-        if (ticks - lastShotTick < cooldown) return;
-        lastShotTick = ticks;
-
-        // Normalize to -1/0/1 and default to up if somehow 0,0
-        if (dirX == 0 && dirY == 0) { dirX = 0; dirY = -1; }
-        else { dirX = Integer.signum(dirX); dirY = Integer.signum(dirY); }
-
-        int cx = frog.x + (frog.w / 2) - 5;
-        int cy = frog.y + (frog.h / 2) - 5;
-        int muzzle = 10;
-        int spawnX = cx + (dirX * muzzle);
-        int spawnY = cy + (dirY * muzzle);
-
-        double speed = 8.0;
-        double vx = dirX * speed;
-        double vy = dirY * speed; // screen Y increases downward
-
-        if (fireMode == FireMode.SINGLE) {
-            shots.add(new Projectile(spawnX, spawnY, vx, vy));
-        } else {
-            // SPREAD (3 shots)
-            double off = 2.0;
-            if (dirX != 0 && dirY == 0) {
-                // Horizontal: vary vy
-                shots.add(new Projectile(spawnX, spawnY, vx, vy));
-                shots.add(new Projectile(spawnX, spawnY, vx, vy - off));
-                shots.add(new Projectile(spawnX, spawnY, vx, vy + off));
-            } else if (dirY != 0 && dirX == 0) {
-                // Vertical: vary vx
-                shots.add(new Projectile(spawnX, spawnY, vx, vy));
-                shots.add(new Projectile(spawnX, spawnY, vx - off, vy));
-                shots.add(new Projectile(spawnX, spawnY, vx + off, vy));
-            } else {
-                // Diagonal fallback: small fan
-                shots.add(new Projectile(spawnX, spawnY, vx, vy));
-                shots.add(new Projectile(spawnX, spawnY, vx + off*0.7, vy));
-                shots.add(new Projectile(spawnX, spawnY, vx, vy + off*0.7));
-            }
-        }
-    }
-
-    //- NOVA (radial burst around frog)
-    private void fireNova() {
-        int cooldown = 23;
-        if (ticks - lastShotTick < cooldown) return;
-        lastShotTick = ticks;
-
-        int cx = frog.x + (frog.w / 2);
-        int cy = frog.y + (frog.h / 2);
-
-       
-        int count = 6;         
-        double speed = 7.0;
-
-        for (int i = 0; i < count; i++) {
-            double ang = (2*Math.PI * i) / count;
-            double vx = Math.cos(ang) * speed;
-            double vy = Math.sin(ang) * speed; 
-            shots.add(new Projectile(cx, cy, vx, vy));
-        }
-    }
-
-  
-    // Overlap prevention helpers
-   
-    private boolean laneHasSpaceFor(Lane lane, int x, int y, int w, int h, int gap) {
-        Rectangle cand = new Rectangle(x,y,w,h);
-        for (Car c : cars)    if (Math.abs(c.y - y) < 2 && expand(c.bounds(), gap).intersects(cand)) return false;
-        for (Truck t : trucks) if (Math.abs(t.y - y) < 2 && expand(t.bounds(), gap).intersects(cand)) return false;
-        return true;
-    }
-    private boolean logLaneHasSpaceFor(Lane lane, int x, int y, int w, int h, int gap) {
-        Rectangle cand = new Rectangle(x,y,w,h);
-        for (Log l : logs) if (Math.abs(l.y - lane.y) < TILE/2 && expand(l.bounds(), gap).intersects(cand)) return false;
-        return true;
-    }
-    private boolean critterLaneHasSpaceFor(Lane lane, int x, int y, int w, int h, int gap) {
-        Rectangle cand = new Rectangle(x,y,w,h);
-        for (Bird b : birds) if (Math.abs(b.y - lane.y) < TILE/2 && expand(b.bounds(), gap).intersects(cand)) return false;
-        for (Snake s : snakes) if (Math.abs(s.y - lane.y) < TILE/2 && expand(s.bounds(), gap).intersects(cand)) return false;
-        return true;
-    }
-    private Rectangle expand(Rectangle r, int gap){ return new Rectangle(r.x-gap, r.y, r.width+2*gap, r.height); }
-
-    private void resolveVehicleGapsSingleTrack() {
-        for (Lane lane : roadLanes) {
-            int laneY = lane.y + 5;
-            ArrayList<Object> objs = new ArrayList<>();
-            for (Car c : cars)    if (Math.abs(c.y - laneY) <= 2) objs.add(c);
-            for (Truck t : trucks) if (Math.abs(t.y - laneY) <= 2) objs.add(t);
-            if (objs.size() < 2) continue;
-
-            objs.sort((a,b)->Double.compare(getX(a), getX(b)));
-
-            for (int i=0;i<objs.size()-1;i++){
-                Object A = objs.get(i);
-                Object B = objs.get(i+1);
-                Rectangle ra = bounds(A), rb = bounds(B);
-
-                int needed = (ra.x + ra.width + VEHICLE_MIN_GAP) - rb.x;
-                if (needed > 0) {
-                    double sa = getSpeed(A);
-                    double sb = getSpeed(B);
-                    if (Math.signum(sa) == Math.signum(sb)) {
-                        if (sa > 0) setX(B, getX(B) + needed);
-                        else        setX(A, getX(A) - needed);
-                    } else {
-                        setX(A, getX(A) - needed/2.0);
-                        setX(B, getX(B) + needed/2.0);
-                    }
-                }
-            }
-        }
-    }
-
-    private double getX(Object o){ return (o instanceof Car) ? ((Car)o).x : ((Truck)o).x; }
-    private void   setX(Object o, double v){ if (o instanceof Car) ((Car)o).x=v; else ((Truck)o).x=v; }
-    private double getSpeed(Object o){ return (o instanceof Car) ? ((Car)o).speed : ((Truck)o).speed; }
-    private Rectangle bounds(Object o){
-        if (o instanceof Car c)   return c.bounds();
-        if (o instanceof Truck t) return t.bounds();
-        return new Rectangle();
-    }
-
-    //  Lane holder
-    static class Lane {
-        final int y;
-        final double speed;
-        final int spawnEveryTicks;
-        Lane(int y, double speed, int spawnEveryTicks){
-            this.y = y; this.speed = speed; this.spawnEveryTicks = spawnEveryTicks;
-        }
-    }
 }
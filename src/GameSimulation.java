@@ -0,0 +1,1034 @@
+import java.util.*;
+
+/**
+ * The game rules with no AWT or Swing dependency: spawning, movement,
+ * collisions, scoring and level flow, over the lane layouts and win rules
+ * of a LevelSet (levels.txt). It advances exactly one tick per
+ * step(InputFrame); GamePanel is a view over it and HeadlessRunner
+ * drives it with no window at all.
+ */
+class GameSimulation {
+    // Board constants
+    static final int TILE = 40;
+    static final int COLS = 16;
+    static final int ROWS = 18;
+    static final int WIDTH = COLS * TILE;
+    static final int HEIGHT = ROWS * TILE;
+
+    // Actor sizes (SpriteAtlas scales art to these)
+    static final int CAR_W    = TILE * 2;
+    static final int CAR_H    = TILE - 10;
+    static final int TRUCK_W  = TILE * 3;
+    static final int TRUCK_H  = TILE - 8;
+    static final int LOG_W    = TILE * 3;
+    static final int LOG_H    = TILE - 12;
+    static final int BIRD_W   = TILE - 8;
+    static final int BIRD_H   = TILE - 14;
+    static final int SNAKE_W  = (int)(TILE * 1.6);
+    static final int SNAKE_H  = TILE - 12;
+
+    // Projectiles & scoring (Level 2/3)
+    private final java.util.List<Projectile> shots = new ArrayList<>();
+    private final Pool<Projectile> shotPool = new Pool<>(64, Projectile::new);
+    private long lastShotTick = -1000;
+    private static final int KILL_SCORE = 25;
+
+    // Hit effects (simple puff particles)
+    private static class Puff {
+        double x,y, r, vr;
+        int life;
+        Puff reset(double x,double y){ this.x=x; this.y=y; this.r=2; this.vr=0.9; this.life=16; return this; }
+        boolean update(){ r += vr; life--; return life>0; }
+    }
+    private final java.util.List<Puff> puffs = new ArrayList<>();
+    private final Pool<Puff> puffPool = new Pool<>(48, Puff::new);
+
+    // Combo state 
+    private int combo = 0;
+    private int comboTimer = 0;
+    private static final int COMBO_WINDOW_TICKS = 60; // ~1 sec at 60fps
+
+    // Update & state
+    private boolean over = false;
+    private int finalScore = 0;
+    private final Frog frog;
+
+    // Lane actors (cars, trucks, logs, birds, snakes)
+    private final EntityStore actors = new EntityStore();
+    private final java.util.List<Lane> roadLanes = new ArrayList<>();
+    private final java.util.List<Lane> riverLanes = new ArrayList<>();
+    private final java.util.List<Lane> critterLanes = new ArrayList<>();
+
+    // Next spawn tick per lane; lane numbers run road, river, critter in list order
+    private final SpawnSchedule schedule = new SpawnSchedule();
+
+    // Per-tick spatial index over the actors (all collision and spacing queries)
+    private final SpatialGrid grid = new SpatialGrid();
+
+    private final Random rng;
+    private final LevelSet levels;
+    private Metrics metrics;
+
+    // Spacing
+    private final int VEHICLE_MIN_GAP = TILE;     // desired min gap on a road lane
+    private final int CRITTER_MIN_GAP = TILE/2;
+
+    // Levels (game scenes), looked up in the level table
+    private int level;                    // numeric level indicator (scene)
+    private Level def;                    // its definition
+
+    private int lives = 3;
+    private int ticks = 0;
+    private boolean paused = false;
+    private boolean showHelp = true;
+
+    private int score = 0;
+    private int bestRowY;
+
+    // Player progression (fire-mode unlocks)
+    private int playerLevel = 1;                    // starts at level 1
+    private static final int LEVEL2_THRESHOLD = 1000;
+    private static final int LEVEL3_THRESHOLD = 3000;
+    private int levelUpFlashTicks = 0;              // overlay timer
+    private int justLeveledTo = 1;                  // holds new level for overlay
+    static final int LEVELUP_FLASH_FRAMES = 45;
+
+    // Kills toward a "win kills" target (no timer)
+    private int killCount = 0;
+
+    // What took a life, counted per level for tuning runs
+    static final int DEATH_CAR = 0, DEATH_TRUCK = 1, DEATH_BIRD = 2, DEATH_SNAKE = 3, DEATH_WATER = 4;
+    static final String[] DEATH_CAUSES = { "car", "truck", "bird", "snake", "water" };
+    private final int[][] deaths;
+
+    // Transition overlay ("Next Level")
+    private int transitionTicks = 0;
+    private int nextLevelPending= 0;
+    private static final int TRANSITION_FRAMES = 60; // ~1 sec
+
+    // Firing modes and directional shooting
+    private enum FireMode { SINGLE, SPREAD, NOVA }
+    private FireMode fireMode = FireMode.SINGLE; // current selection
+
+    // Constructor
+    GameSimulation() { this(new Random(), LevelSet.standard()); }
+    GameSimulation(long seed) { this(new Random(seed), LevelSet.standard()); }
+    GameSimulation(long seed, LevelSet levels) { this(new Random(seed), levels); }
+
+    private GameSimulation(Random rng, LevelSet levels) {
+        this.rng = rng;
+        this.levels = levels;
+        level = levels.first;
+        deaths = new int[levels.highest() + 1][DEATH_CAUSES.length];
+        frog = new Frog(WIDTH/2 - TILE/2, (ROWS-1)*TILE + 4);
+        bestRowY = frog.y;
+        setupLevel();
+    }
+
+    boolean isOver()   { return over; }
+    int finalScore()   { return finalScore; }
+    int level()        { return level; }
+    int score()        { return score; }
+    int lives()        { return lives; }
+    int ticks()        { return ticks; }
+    boolean inTransition() { return transitionTicks > 0; }
+    int critterCount() { return actors.count(SpatialGrid.BIRDS | SpatialGrid.SNAKES); }
+    int vehicleCount() { return actors.count(SpatialGrid.CARS | SpatialGrid.TRUCKS); }
+    int roadLaneCount() { return roadLanes.size(); }
+    int frogX()        { return frog.x; }
+    int frogY()        { return frog.y; }
+    boolean canFire()  { return def.shoot != 0; }
+    boolean wonAtTop() { return def.win == Level.WIN_REACH; }
+
+    // Lives lost on a level to a DEATH_* cause
+    int deaths(int level, int cause) { return deaths[level][cause]; }
+
+    // Bot probe: would a frog at (x, y) survive the world as it stands after the last step?
+    boolean safeAt(int x, int y) {
+        if (def.hazards != 0 && grid.query(x, y, frog.w, frog.h, def.hazards) > 0) return false;
+        return !def.water(y / TILE) || grid.first(x, y, frog.w, frog.h, SpatialGrid.LOGS) >= 0;
+    }
+
+    // Pool occupancy for tooling: capacity, in use, peak, misses
+    String poolStats() {
+        return String.format("actors %d/%d peak=%d grows=%d | shots %d/%d peak=%d misses=%d | puffs %d/%d peak=%d misses=%d",
+                actors.count, actors.capacity(), actors.peak(), actors.grows(),
+                shotPool.inUse(), shotPool.capacity(), shotPool.peakInUse(), shotPool.misses(),
+                puffPool.inUse(), puffPool.capacity(), puffPool.peakInUse(), puffPool.misses());
+    }
+
+    // Per-pass timings go to m (null: off, as for headless tools and benchmarks)
+    void setMetrics(Metrics m) { metrics = m; }
+
+    // Live actors per Metrics census slot: lane kinds by layer, then shots and puffs
+    void census(int[] out) {
+        java.util.Arrays.fill(out, 0);
+        for (int i = 0; i < actors.count; i++)
+            if (!actors.dead[i]) out[Integer.numberOfTrailingZeros(EntityStore.layer(actors.kind[i]))]++;
+        out[Metrics.SHOTS_ALIVE] = shots.size();
+        out[Metrics.PUFFS] = puffs.size();
+    }
+
+    // Digest of the gameplay state for replay checks: equal runs give equal values at equal ticks
+    long checksum() {
+        long h = 1125899906842597L;
+        h = 31 * h + ticks;
+        h = 31 * h + score;
+        h = 31 * h + lives;
+        h = 31 * h + level;
+        h = 31 * h + (over ? 1 : 0);
+        h = 31 * h + frog.x;
+        h = 31 * h + frog.y;
+        h = 31 * h + killCount;
+        h = 31 * h + combo;
+        h = 31 * h + transitionTicks;
+        h = 31 * h + fireMode.ordinal();
+        for (int i = 0; i < actors.count; i++) {
+            if (actors.dead[i]) continue;
+            h = 31 * h + actors.kind[i];
+            h = 31 * h + Double.doubleToLongBits(actors.x[i]);
+            h = 31 * h + Double.doubleToLongBits(actors.y[i]);
+        }
+        for (Projectile p : shots) {
+            h = 31 * h + Double.doubleToLongBits(p.x);
+            h = 31 * h + Double.doubleToLongBits(p.y);
+        }
+        return h;
+    }
+
+    // Tooling hooks (JMH fixtures, batch runs); not reachable from the UI
+    void startAtLevel(int lvl) {
+        level = lvl;
+        transitionTicks = 0; nextLevelPending = 0;
+        setupLevel();
+    }
+
+    void unlockFireModes() {
+        playerLevel = 3;
+        fireMode = FireMode.NOVA;
+    }
+
+    void addShotAt(double x, double y) { addShot(x, y, 0, 0); }
+
+    // The shot pass's collision queries alone, nothing killed: shots over a target
+    int shotHits() {
+        int n = 0;
+        for (int i = 0; i < shots.size(); i++) if (shotTarget(shots.get(i)) >= 0) n++;
+        return n;
+    }
+
+    void addVehicle(int laneIndex, double x, boolean truck) {
+        Lane lane = roadLanes.get(laneIndex);
+        int y = lane.y + 5;
+        if (truck) addActor(EntityStore.TRUCK, (int)x, y, TRUCK_W, TRUCK_H, lane.speed * 0.9, laneIndex);
+        else       addActor(EntityStore.CAR, (int)x, y, CAR_W, CAR_H, lane.speed, laneIndex);
+    }
+
+    private double vary(double base, double factor) {
+        double mult = 1.0 + (rng.nextDouble()*2 - 1) * factor;
+        return base * mult;
+    }
+
+    // Chance roll; certain outcomes draw nothing, so a 1 keeps the old no-roll spawns' sequence
+    private boolean roll(double chance) { return chance >= 1 || rng.nextDouble() < chance; }
+
+    // Level setup
+    private void setupLevel() {
+        if (!Flight.ON) { buildLevel(); return; }
+        Flight.LevelSetup e = new Flight.LevelSetup();
+        e.begin();
+        buildLevel();
+        e.level = level;
+        e.actors = actors.count;
+        e.lanes = roadLanes.size() + riverLanes.size() + critterLanes.size();
+        e.commit();
+    }
+
+    private void buildLevel() {
+        actors.clear();
+        roadLanes.clear(); riverLanes.clear(); critterLanes.clear();
+        releaseShotsAndPuffs();
+        grid.clear();
+        combo = 0; comboTimer = 0;
+
+        def = levels.get(level);
+        if (def.win == Level.WIN_KILLS) killCount = 0;
+
+        addLanes(roadLanes, def.road);
+        addLanes(riverLanes, def.river);
+        addLanes(critterLanes, def.critter);
+        scheduleLanes();
+
+        // Seed road vehicles (car, carRed, truck)
+        Level.Spawn s = def.road;
+        for (int li = 0; li < roadLanes.size(); li++) {
+            Lane lane = roadLanes.get(li);
+            int target = s.seed + (s.extra > 0 && rng.nextDouble() < s.extra ? 1 : 0);
+            int seeded = 0, attempts = 0;
+            while (seeded < target && attempts++ < 40) {
+                int y = lane.y + 5;
+                boolean truck = rng.nextDouble() < s.seedTruck;
+                int w = truck ? TRUCK_W : CAR_W;
+                int h = truck ? TRUCK_H : CAR_H;
+                int x = rng.nextInt(WIDTH - w);
+                double sp = truck
+                        ? vary(Math.copySign(Math.abs(lane.speed*s.truckSpeed), lane.speed), 0.25)
+                        : vary(lane.speed, 0.25);
+
+                if (laneHasSpaceFor(lane, x, y, w, h, VEHICLE_MIN_GAP)) {
+                    if (truck) addActor(EntityStore.TRUCK, x, y, w, h, sp, li);
+                    else {
+                        byte kind = (rng.nextDouble() < 0.5) ? EntityStore.CAR_RED : EntityStore.CAR;
+                        addActor(kind, x, y, w, h, sp, li);
+                    }
+                    seeded++;
+                }
+            }
+        }
+
+        // Seed logs
+        s = def.river;
+        for (int li = 0; li < riverLanes.size(); li++) {
+            Lane lane = riverLanes.get(li);
+            int toPlace = s.seed + (s.extra > 0 && rng.nextDouble() < s.extra ? 1 : 0);
+            int attempts = 0;
+            while (toPlace > 0 && attempts++ < 20) {
+                int y = lane.y + 6, x = rng.nextInt(WIDTH-LOG_W);
+                if (laneHasSpaceFor(lane, x, y, LOG_W, LOG_H, TILE/2)) {
+                    addActor(EntityStore.LOG, x, y, LOG_W, LOG_H, lane.speed, li);
+                    toPlace--;
+                }
+            }
+        }
+
+        // Seed critters: one try each
+        s = def.critter;
+        for (int li = 0; li < critterLanes.size(); li++) {
+            Lane lane = critterLanes.get(li);
+            int toPlace = s.seed, attempts = 0;
+            while (toPlace > 0 && attempts++ < 20) {
+                boolean bird = rng.nextBoolean();
+                if (bird) {
+                    int y = lane.y + 7, x = rng.nextInt(WIDTH-BIRD_W);
+                    if (laneHasSpaceFor(lane, x, y, BIRD_W, BIRD_H, CRITTER_MIN_GAP)) {
+                        addActor(EntityStore.BIRD, x, y, BIRD_W, BIRD_H, lane.speed*s.bird, li);
+                    }
+                } else {
+                    int y = lane.y + 6, x = rng.nextInt(WIDTH-SNAKE_W);
+                    if (laneHasSpaceFor(lane, x, y, SNAKE_W, SNAKE_H, CRITTER_MIN_GAP)) {
+                        addActor(EntityStore.SNAKE, x, y, SNAKE_W, SNAKE_H, lane.speed*s.snake, li);
+                    }
+                }
+                toPlace--;
+            }
+        }
+
+        resetFrog(false);
+        // Bot probes read the grid before the first tick
+        indexActors();
+    }
+
+    private static void addLanes(java.util.List<Lane> lanes, Level.Spawn s) {
+        for (int i = 0; i < s.lanes; i++)
+            lanes.add(new Lane(s.laneRow[i] * TILE, s.laneSpeed[i] * s.speed, s.ticks(i)));
+    }
+
+    // First spawn of each lane on the next tick that is a multiple of its cadence,
+    // the ticks the old ticks % cadence polling fired on
+    private void scheduleLanes() {
+        schedule.clear();
+        int n = roadLanes.size() + riverLanes.size() + critterLanes.size();
+        if (n > SpawnSchedule.MAX_LANES) throw new IllegalStateException("level " + level + " has " + n + " lanes");
+        for (int i = 0; i < n; i++) {
+            int every = scheduledLane(i).spawnEveryTicks;
+            schedule.add((ticks / every + 1) * every, i);
+        }
+    }
+
+    private Lane scheduledLane(int i) {
+        if (i < roadLanes.size()) return roadLanes.get(i);
+        i -= roadLanes.size();
+        if (i < riverLanes.size()) return riverLanes.get(i);
+        return critterLanes.get(i - riverLanes.size());
+    }
+
+    private void resetFrog(boolean keepRowBonus) {
+        if (!keepRowBonus) bestRowY = (ROWS-1)*TILE + 4;
+        frog.x = WIDTH/2 - TILE/2;
+        frog.y = (ROWS-1)*TILE + 4;
+        frog.alive = true;
+    }
+
+    private void startTransitionTo(int nextLvl) {
+        nextLevelPending = nextLvl;
+        transitionTicks   = TRANSITION_FRAMES;
+    }
+
+    // Main update (one fixed tick)
+    void step(InputFrame input) {
+        if (!Flight.ON) { advance(input); return; }
+        Flight.Tick e = new Flight.Tick();
+        e.begin();
+        advance(input);
+        e.level = level;
+        e.tick = ticks;
+        e.actors = actors.count;
+        e.shots = shots.size();
+        e.puffs = puffs.size();
+        e.commit();
+    }
+
+    private void advance(InputFrame input) {
+        if (over) return;
+
+        // Input is applied at tick boundaries so the simulation sees it deterministically
+        for (int i = 0; i < input.size(); i++) apply(input.get(i));
+
+        if (transitionTicks > 0) {
+            transitionTicks--;
+            if (transitionTicks == 0 && nextLevelPending != 0) {
+                level = nextLevelPending;
+                nextLevelPending = 0;
+                setupLevel();
+            }
+            return;
+        }
+
+        if (paused) return;
+        ticks++;
+
+        // overlay tick (level-up)
+        if (levelUpFlashTicks > 0) levelUpFlashTicks--;
+
+        // combo window timer
+        if (combo > 0) {
+            comboTimer--;
+            if (comboTimer <= 0) combo = 0;
+        }
+
+        long t = metrics != null ? System.nanoTime() : 0;
+        Flight.Pass pass = Flight.ON ? Flight.pass("spawn", level) : null;
+        spawnPass();
+        if (pass != null) { pass.actors = actors.count; pass.commit(); }
+        if (metrics != null) t = lap(Metrics.SPAWN, t);
+        moveActors();
+
+        // Keep spacing for road vehicles
+        resolveVehicleGapsSingleTrack();
+        if (metrics != null) t = lap(Metrics.MOVE, t);
+
+        // Actors have moved: re-file them before any collision query
+        indexActors();
+        if (metrics != null) t = lap(Metrics.INDEX, t);
+
+        // Projectiles, collisions, puffs (true when the tick ended early)
+        if (def.shoot != 0) {
+            pass = Flight.ON ? Flight.pass("shots", level) : null;
+            boolean ended = shotPass();
+            if (pass != null) { pass.actors = actors.count; pass.commit(); }
+            if (metrics != null) t = lap(Metrics.SHOTS, t);
+            if (ended) return;
+        }
+
+        pass = Flight.ON ? Flight.pass("frog", level) : null;
+        cullOffscreen();
+        frogPass();
+        if (pass != null) { pass.actors = actors.count; pass.commit(); }
+        if (metrics != null) lap(Metrics.FROG, t);
+    }
+
+    private long lap(int phase, long since) {
+        long now = System.nanoTime();
+        metrics.phase(level, phase).record(now - since);
+        return now;
+    }
+
+    // Lane spawning, as the level's spawn settings say. Only lanes the schedule
+    // has due this tick are looked at, in lane order so random draws keep their order.
+    private void spawnPass() {
+        // Drop last tick's kills; the grid is refiled once, after the move
+        dropDead();
+
+        int roads = roadLanes.size(), rivers = riverLanes.size();
+        boolean population = def.critter.population();
+        while (schedule.due(ticks)) {
+            int i = schedule.pop();
+            Lane lane = scheduledLane(i);
+            lane.dueTick = ticks;
+            schedule.add(ticks + lane.spawnEveryTicks, i);
+            if (i < roads) spawnVehicle(lane, i);
+            else if (i < roads + rivers) spawnLog(lane, i - roads);
+            else if (!population) spawnCritter(lane, i - roads - rivers);
+        }
+        if (population) maintainCritterPopulation(def.critter);
+    }
+
+    private void spawnVehicle(Lane lane, int li) {
+        Level.Spawn s = def.road;
+        if (!roll(s.chance)) return;
+        boolean truck = rng.nextDouble() < s.truck;
+        int y = lane.y + 5;
+
+        if (truck) {
+            int w=TRUCK_W, h=TRUCK_H;
+            boolean right = lane.speed > 0;
+            int x = right ? -w - 12 : WIDTH + 12;
+            double sp = vary(Math.copySign(Math.abs(lane.speed*s.truckSpeed), lane.speed), 0.25);
+            int enterX = right ? -w : WIDTH;
+            if (lane.entryClear(enterX, w, VEHICLE_MIN_GAP))
+                addActor(EntityStore.TRUCK, x, y, w, h, sp, li);
+        } else {
+            int w=CAR_W, h=CAR_H;
+            boolean right = lane.speed > 0;
+            int x = right ? -w - 12 : WIDTH + 12;
+            byte kind = (rng.nextDouble()<0.5) ? EntityStore.CAR_RED : EntityStore.CAR;
+            double sp = vary(lane.speed, 0.25);
+            int enterX = right ? -w : WIDTH;
+            if (lane.entryClear(enterX, w, VEHICLE_MIN_GAP))
+                addActor(kind, x, y, w, h, sp, li);
+        }
+    }
+
+    private void spawnLog(Lane lane, int li) {
+        if (!roll(def.river.chance)) return;
+        int y = lane.y + 6;
+        int x = lane.speed > 0 ? -LOG_W - 10 : WIDTH + 10;
+        if (lane.entryClear(x, LOG_W, TILE/3))
+            addActor(EntityStore.LOG, x, y, LOG_W, LOG_H, lane.speed, li);
+    }
+
+    private void spawnCritter(Lane lane, int li) {
+        Level.Spawn s = def.critter;
+        if (!roll(s.chance)) return;
+        boolean bird = rng.nextBoolean();
+        if (bird) {
+            int y = lane.y + 7;
+            int x = lane.speed > 0 ? -BIRD_W - 10 : WIDTH + 10;
+            if (critterEntryClear(lane, x, y, BIRD_W, BIRD_H)) {
+                addActor(EntityStore.BIRD, x, y, BIRD_W, BIRD_H, lane.speed*s.bird, li);
+            }
+        } else {
+            int y = lane.y + 6;
+            int x = lane.speed > 0 ? -SNAKE_W - 10 : WIDTH + 10;
+            if (critterEntryClear(lane, x, y, SNAKE_W, SNAKE_H)) {
+                addActor(EntityStore.SNAKE, x, y, SNAKE_W, SNAKE_H, lane.speed*s.snake, li);
+            }
+        }
+    }
+
+    private void moveActors() {
+        // Move actors
+        actors.move();
+
+        // Critter extra motion (L2): vertical wiggle + occasional horizontal flip
+        Level.Spawn s = def.critter;
+        if (s.wiggle > 0 || s.flip > 0) {
+            wiggle(EntityStore.BIRD, s.wiggle, s.flip);
+            wiggle(EntityStore.SNAKE, s.wiggle * 0.9, s.flip);
+        }
+    }
+
+    // Bounce inside the owning lane; birds first, then snakes, so flip rolls keep their order
+    private void wiggle(byte kind, double vSpeed, double flipChance) {
+        EntityStore a = actors;
+        for (int i = 0; i < a.count; i++) {
+            if (a.kind[i] != kind || a.lane[i] < 0) continue;
+            Lane ln = critterLanes.get(a.lane[i]);
+            int dir = a.vdir[i];
+            a.y[i] += dir * vSpeed;
+            int minY = ln.y + 2;
+            int maxY = ln.y + TILE - a.h[i] - 2;
+            if (a.y[i] < minY) { a.y[i] = minY; dir = 1; }
+            else if (a.y[i] > maxY) { a.y[i] = maxY; dir = -1; }
+            a.vdir[i] = (byte) dir;
+            if (rng.nextDouble() < flipChance) a.speed[i] = -a.speed[i];
+        }
+    }
+
+    private boolean shotPass() {
+        for (int i = 0; i < shots.size(); i++) shots.get(i).update();
+
+        // Each shot takes out the first target under it
+        for (int i = 0; i < shots.size(); i++) {
+            int id = shotTarget(shots.get(i));
+            if (id < 0) continue;
+
+            grid.kill(id);
+            int v = grid.ref(id);
+            actors.kill(v);
+            spawnPuff(actors.x[v] + actors.w[v]/2.0, actors.y[v] + actors.h[v]/2.0);
+            awardKillScore();
+            if (def.win == Level.WIN_KILLS) killCount++;
+
+            shotPool.release(shots.remove(i--));
+            if (def.win == Level.WIN_KILLS && killCount >= def.winValue &&
+                    nextLevelPending == 0 && transitionTicks == 0) {
+                levelWon();
+                return true;
+            }
+        }
+
+        // remove off-screen bullets
+        int n = 0;
+        for (int i = 0; i < shots.size(); i++) {
+            Projectile p = shots.get(i);
+            if (!p.offscreen(WIDTH, HEIGHT)) shots.set(n++, p);
+            else shotPool.release(p);
+        }
+        truncate(shots, n);
+
+        // update puffs
+        n = 0;
+        for (int i = 0; i < puffs.size(); i++) {
+            Puff p = puffs.get(i);
+            if (p.update()) puffs.set(n++, p);
+            else puffPool.release(p);
+        }
+        truncate(puffs, n);
+        return false;
+    }
+
+    private void cullOffscreen() {
+        EntityStore a = actors;
+        for (int i = 0; i < a.count; i++) {
+            boolean gone = a.kind[i] == EntityStore.SNAKE
+                    ? a.x[i] < -a.w[i] - 60 || a.y[i] > HEIGHT + 60
+                    : a.x[i] < -a.w[i] - 60 || a.x[i] > WIDTH + 60;
+            if (gone) a.kill(i);
+        }
+        // Slots are compacted at the next dropDead(); grid refs stay valid for this tick
+    }
+
+    // Drops the tail from the end; subList().clear() would allocate a view
+    private static void truncate(java.util.List<?> list, int size) {
+        for (int i = list.size() - 1; i >= size; i--) list.remove(i);
+    }
+
+    // Frog vs world, row bonus and level exits
+    private void frogPass() {
+        frog.update();
+
+        // Up-row bonus
+        if (def.rowBonus > 0 && frog.y < bestRowY) {
+            int rowsUp = (bestRowY - frog.y) / TILE;
+            if (rowsUp > 0) { score += rowsUp * def.rowBonus; bestRowY = frog.y; checkLevelUp(); }
+        }
+
+        if (def.hazards != 0 && grid.query(frog.x, frog.y, frog.w, frog.h, def.hazards) > 0) { die(hitCause()); return; }
+
+        // Water rows: must be on a log, which carries the frog
+        if (def.water(frog.y / TILE)) {
+            int id = grid.first(frog.x, frog.y, frog.w, frog.h, SpatialGrid.LOGS);
+            if (id < 0) { die(DEATH_WATER); return; }
+            frog.x += actors.speed[grid.ref(id)]; frog.clampToBoard(WIDTH);
+        }
+
+        // Reached the top
+        if (def.win == Level.WIN_REACH && frog.y <= TILE) {
+            if (def.winValue > 0) { score += def.winValue; checkLevelUp(); }
+            levelWon();
+        }
+    }
+
+    // On to the next level, or the end of the game
+    private void levelWon() {
+        if (def.next != 0) startTransitionTo(def.next);
+        else endGame(score + def.endBonus);
+    }
+
+    //Maintain min..max critters on-screen (L2: 15–20)
+    private void maintainCritterPopulation(Level.Spawn s) {
+        int alive = 0;
+        for (int li = 0; li < critterLanes.size(); li++) alive += critterLanes.get(li).members();
+
+        for (int li = 0; li < critterLanes.size(); li++) {
+            Lane lane = critterLanes.get(li);
+            if (alive >= s.max) break;
+
+            boolean forceSpawn = (alive < s.min);
+            boolean tickOK = lane.dueTick == ticks && rng.nextDouble() < s.chance;
+
+            if (forceSpawn || tickOK) {
+                int spawnsThisTick = 1 + ((forceSpawn && rng.nextDouble() < s.doubleChance) ? 1 : 0);
+                while (spawnsThisTick-- > 0 && alive < s.max) {
+                    boolean birdPick = rng.nextBoolean();
+                    if (birdPick) {
+                        int y = lane.y + 7;
+                        int x = lane.speed > 0 ? -BIRD_W - 10 : WIDTH + 10;
+                        if (critterEntryClear(lane, x, y, BIRD_W, BIRD_H)) {
+                            int b = addActor(EntityStore.BIRD, x, y, BIRD_W, BIRD_H, lane.speed*s.bird, li);
+                            actors.vdir[b] = (byte) (rng.nextBoolean()?1:-1);
+                            alive++;
+                        }
+                    } else {
+                        int y = lane.y + 6;
+                        int x = lane.speed > 0 ? -SNAKE_W - 10 : WIDTH + 10;
+                        if (critterEntryClear(lane, x, y, SNAKE_W, SNAKE_H)) {
+                            int sn = addActor(EntityStore.SNAKE, x, y, SNAKE_W, SNAKE_H, lane.speed*s.snake, li);
+                            actors.vdir[sn] = (byte) (rng.nextBoolean()?1:-1);
+                            alive++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    //scoring helpers
+    private void awardKillScore() {
+        combo = Math.min(9, combo + 1);
+        comboTimer = COMBO_WINDOW_TICKS;
+        score += KILL_SCORE + combo * 5;
+        checkLevelUp();
+    }
+    private void spawnPuff(double x, double y) { for (int i=0;i<3;i++) puffs.add(puffPool.acquire().reset(x, y)); }
+    // Projectile collisions: first actor in list order (cars before trucks, birds before snakes)
+    private int shotTarget(Projectile p) { return grid.first((int)p.x, (int)p.y, p.w, p.h, def.shoot); }
+
+    private void addShot(double x, double y, double vx, double vy) { shots.add(shotPool.acquire().launch(x, y, vx, vy)); }
+
+    private void releaseShotsAndPuffs() {
+        for (int i = 0; i < shots.size(); i++) shotPool.release(shots.get(i));
+        for (int i = 0; i < puffs.size(); i++) puffPool.release(puffs.get(i));
+        shots.clear(); puffs.clear();
+    }
+
+    private void checkLevelUp() {
+        // Level 1  > 2 at 1000, 2 > 3 at 3000; cap at 3
+        int newLevel = playerLevel;
+
+        if (score >= LEVEL3_THRESHOLD) {
+            newLevel = 3;
+        } else if (score >= LEVEL2_THRESHOLD) {
+            newLevel = 2;
+        } else {
+            newLevel = 1;
+        }
+
+        if (newLevel > 3) newLevel = 3;
+
+        if (newLevel > playerLevel) {
+            playerLevel = newLevel;
+            justLeveledTo = playerLevel;
+            levelUpFlashTicks = LEVELUP_FLASH_FRAMES;
+
+            // Auto-select newly unlocked fire mode
+            if (playerLevel >= 3)       fireMode = FireMode.NOVA;
+            else if (playerLevel == 2)  fireMode = FireMode.SPREAD;
+            else                        fireMode = FireMode.SINGLE;
+        }
+    }
+
+    //death / gameover 
+    private void die(int cause) {
+        if (!frog.alive) return;
+        deaths[level][cause]++;
+        frog.alive = false; lives--; score = Math.max(0, score - 25);
+        combo = 0; comboTimer = 0;
+        // No level down on death; keep playerLevel
+        if (lives <= 0) {
+            endGame(score);
+            return;
+        }
+        setupLevel();
+    }
+
+    // Cause for the first hit of the frog query that just came back non-empty
+    private int hitCause() {
+        int layer = grid.layer(grid.hit(0));
+        if (layer == SpatialGrid.TRUCKS) return DEATH_TRUCK;
+        if (layer == SpatialGrid.BIRDS) return DEATH_BIRD;
+        if (layer == SpatialGrid.SNAKES) return DEATH_SNAKE;
+        return DEATH_CAR;
+    }
+
+    private void endGame(int finalScore) {
+        over = true;
+        if (Flight.ON) {
+            Flight.GameOver e = new Flight.GameOver();
+            e.level = level;
+            e.score = finalScore;
+            e.ticks = ticks;
+            e.commit();
+        }
+        this.finalScore = finalScore;
+    }
+
+
+    // Snapshot for the view into a recycled frame; stepNanos is the wall time of the step boundary
+    void capture(Frame f, long stepNanos) {
+        int n = actors.count + shots.size();
+        f.reset(stepNanos, n, puffs.size(), roadLanes.size());
+        f.level = level; f.lives = lives; f.score = score;
+        f.rows = def.rows; f.help = def.help;
+        f.paused = paused; f.showHelp = showHelp;
+        f.transitionTicks = transitionTicks; f.nextLevelPending = nextLevelPending;
+        f.levelUpFlashTicks = levelUpFlashTicks; f.justLeveledTo = justLeveledTo;
+        f.advancing = !paused && transitionTicks == 0;
+        for (int i = 0; i < f.roadLaneCount; i++) f.roadLaneY[i] = roadLanes.get(i).y;
+        f.frogX = frog.x; f.frogY = frog.y; f.frogW = frog.w; f.frogH = frog.h;
+        f.frogFacing = frog.facing;
+
+        // Capture order is draw order: logs, trucks, cars, critters, shots
+        captureLayer(f, SpatialGrid.LOGS);
+        captureLayer(f, SpatialGrid.TRUCKS);
+        captureLayer(f, SpatialGrid.CARS);
+        captureLayer(f, SpatialGrid.BIRDS);
+        captureLayer(f, SpatialGrid.SNAKES);
+        for (int i = 0; i < shots.size(); i++) {
+            Projectile p = shots.get(i);
+            f.add(Frame.SHOT, p.x, p.y, p.px, p.py, p.w, p.h, true);
+        }
+        for (int i = 0; i < puffs.size(); i++) {
+            Puff p = puffs.get(i);
+            f.addPuff(p.x, p.y, p.r, p.life);
+        }
+    }
+
+    private void captureLayer(Frame f, int layer) {
+        EntityStore a = actors;
+        for (int i = 0; i < a.count; i++) {
+            if (a.dead[i] || EntityStore.layer(a.kind[i]) != layer) continue;
+            // trucks face right only when actually moving right
+            boolean right = a.kind[i] == EntityStore.TRUCK ? a.speed[i] > 0 : a.speed[i] >= 0;
+            f.add(a.kind[i], a.x[i], a.y[i], a.px[i], a.py[i], a.w[i], a.h[i], right);
+        }
+    }
+
+    private void apply(byte action) {
+        // Block actions during transition
+        if (transitionTicks > 0) return;
+
+        switch (action) {
+            //Movement: WASD only (S moves down)
+            case InputFrame.MOVE_LEFT  -> frog.nudge(-TILE, 0);
+            case InputFrame.MOVE_RIGHT -> frog.nudge( TILE, 0);
+            case InputFrame.MOVE_UP    -> frog.nudge(0, -TILE);
+            case InputFrame.MOVE_DOWN  -> frog.nudge(0,  TILE);  // S moves down
+
+            //  Arrow keys FIRE in their direction
+            case InputFrame.FIRE_LEFT  -> { if (def.shoot != 0) fireByCurrentMode(-1,  0); }
+            case InputFrame.FIRE_RIGHT -> { if (def.shoot != 0) fireByCurrentMode( 1,  0); }
+            case InputFrame.FIRE_UP    -> { if (def.shoot != 0) fireByCurrentMode( 0, -1); }
+            case InputFrame.FIRE_DOWN  -> { if (def.shoot != 0) fireByCurrentMode( 0,  1); }
+
+            //Fire mode select (gated by playerLevel)
+            case InputFrame.MODE_SINGLE -> { if (playerLevel >= 1) fireMode = FireMode.SINGLE; }
+            case InputFrame.MODE_SPREAD -> { if (playerLevel >= 2) fireMode = FireMode.SPREAD; }
+            case InputFrame.MODE_NOVA   -> { if (playerLevel >= 3) fireMode = FireMode.NOVA;   }
+
+            // Other controls preserved
+            case InputFrame.PAUSE -> paused = !paused;
+            case InputFrame.HELP  -> showHelp = !showHelp;
+            case InputFrame.SKIP  -> {
+                // Skip to the level a win would lead to (none from the last)
+                if (def.next != 0) startTransitionTo(def.next);
+            }
+        }
+    }
+
+    // fire routing by mode 
+    private void fireByCurrentMode(int dirX, int dirY) {
+        if (fireMode == FireMode.NOVA) fireNova();
+        else fireProjectile(dirX, dirY); // SINGLE or SPREAD uses directional fire
+    }
+
+    //  shooting (SINGLE/SPREAD) 
+    private void fireProjectile(int dirX, int dirY) {
+        int baseCooldown = 10;
+        int cooldown = baseCooldown;
+        if (fireMode == FireMode.SPREAD) {
+            // slowed further
+            cooldown = 16;
+        }
+        if (ticks - lastShotTick < cooldown) return;
+        lastShotTick = ticks;
+
+        // Normalize to -1/0/1 and default to up if somehow 0,0
+        if (dirX == 0 && dirY == 0) { dirX = 0; dirY = -1; }
+        else { dirX = Integer.signum(dirX); dirY = Integer.signum(dirY); }
+
+        int cx = frog.x + (frog.w / 2) - 5;
+        int cy = frog.y + (frog.h / 2) - 5;
+        int muzzle = 10;
+        int spawnX = cx + (dirX * muzzle);
+        int spawnY = cy + (dirY * muzzle);
+
+        double speed = 8.0;
+        double vx = dirX * speed;
+        double vy = dirY * speed; // screen Y increases downward
+
+        if (fireMode == FireMode.SINGLE) {
+            addShot(spawnX, spawnY, vx, vy);
+        } else {
+            // SPREAD (3 shots)
+            double off = 2.0;
+            if (dirX != 0 && dirY == 0) {
+                // Horizontal: vary vy
+                addShot(spawnX, spawnY, vx, vy);
+                addShot(spawnX, spawnY, vx, vy - off);
+                addShot(spawnX, spawnY, vx, vy + off);
+            } else if (dirY != 0 && dirX == 0) {
+                // Vertical: vary vx
+                addShot(spawnX, spawnY, vx, vy);
+                addShot(spawnX, spawnY, vx - off, vy);
+                addShot(spawnX, spawnY, vx + off, vy);
+            } else {
+                // Diagonal fallback: small fan
+                addShot(spawnX, spawnY, vx, vy);
+                addShot(spawnX, spawnY, vx + off*0.7, vy);
+                addShot(spawnX, spawnY, vx, vy + off*0.7);
+            }
+        }
+    }
+
+    //- NOVA (radial burst around frog)
+    private void fireNova() {
+        int cooldown = 23;
+        if (ticks - lastShotTick < cooldown) return;
+        lastShotTick = ticks;
+
+        int cx = frog.x + (frog.w / 2);
+        int cy = frog.y + (frog.h / 2);
+
+       
+        int count = 6;         
+        double speed = 7.0;
+
+        for (int i = 0; i < count; i++) {
+            double ang = (2*Math.PI * i) / count;
+            double vx = Math.cos(ang) * speed;
+            double vy = Math.sin(ang) * speed; 
+            addShot(cx, cy, vx, vy);
+        }
+    }
+
+  
+    // Overlap prevention helpers
+   
+    // Only the lane's own actors can block it, boxes snapped as the grid files them.
+    // Candidate boxes are widened by the gap on both sides, same as widening each occupant
+    private boolean laneHasSpaceFor(Lane lane, int x, int y, int w, int h, int gap) {
+        EntityStore a = actors;
+        for (int m = 0; m < lane.members(); m++) {
+            int i = lane.member(m);
+            if (overlaps(snapX(i), snapY(i), a.w[i], a.h[i], x - gap, y, w + 2*gap, h)) return false;
+        }
+        return true;
+    }
+
+    // Entry checks read the lane's rear edge; lanes whose critters turn around
+    // hold actors running both ways, so those look at every member
+    private boolean critterEntryClear(Lane lane, int x, int y, int w, int h) {
+        if (def.critter.flip > 0) return laneHasSpaceFor(lane, x, y, w, h, CRITTER_MIN_GAP);
+        return lane.entryClear(x, w, CRITTER_MIN_GAP);
+    }
+
+    // Spawns go through here so lane rings and rear edges stay current within
+    // the spawn pass; the grid picks them up at the next indexActors()
+    private int addActor(byte kind, double x, double y, int w, int h, double speed, int lane) {
+        int i = actors.add(kind, x, y, w, h, speed, lane);
+        if (lane >= 0) {
+            Lane l = lanesOf(kind).get(lane);
+            l.fileRear(snapX(i), w);
+            l.join(i, actors.x);
+        }
+        return i;
+    }
+
+    // The lane list an actor's lane index points into
+    private java.util.List<Lane> lanesOf(byte kind) {
+        if (kind == EntityStore.LOG) return riverLanes;
+        if (kind == EntityStore.BIRD || kind == EntityStore.SNAKE) return critterLanes;
+        return roadLanes;
+    }
+
+    // Closes kills out of the store and the lane rings before the spawn pass.
+    // Nothing has moved since indexActors() set the rear edges, so only lanes
+    // of a store that lost actors need theirs rebuilt, from their survivors
+    private void dropDead() {
+        if (!actors.compact()) return;
+        for (int k = 0; k < 3; k++) {
+            java.util.List<Lane> lanes = k == 0 ? roadLanes : k == 1 ? riverLanes : critterLanes;
+            for (int i = 0; i < lanes.size(); i++) {
+                Lane lane = lanes.get(i);
+                lane.remap(actors.moved);
+                lane.clearRear();
+                for (int m = 0; m < lane.members(); m++) {
+                    int slot = lane.member(m);
+                    lane.fileRear(snapX(slot), actors.w[slot]);
+                }
+            }
+        }
+    }
+
+    // Refile every live actor layer by layer; ids follow spawn order within a layer,
+    // so "first hit" is the same actor the old per-type list scans picked
+    private void indexActors() {
+        boolean moved = actors.compact();
+        grid.clear();
+        for (int k = 0; k < 3; k++) {
+            java.util.List<Lane> lanes = k == 0 ? roadLanes : k == 1 ? riverLanes : critterLanes;
+            for (int i = 0; i < lanes.size(); i++) {
+                Lane lane = lanes.get(i);
+                if (moved) lane.remap(actors.moved);
+                lane.clearRear();
+            }
+        }
+        EntityStore a = actors;
+        for (int layer = SpatialGrid.CARS; layer <= SpatialGrid.SNAKES; layer <<= 1)
+            for (int i = 0; i < a.count; i++)
+                if (EntityStore.layer(a.kind[i]) == layer) file(i);
+    }
+
+    // The owning lane's rear edge follows the same snapped box
+    private void file(int i) {
+        EntityStore a = actors;
+        int x = snapX(i);
+        grid.insert(i, EntityStore.layer(a.kind[i]), x, snapY(i), a.w[i], a.h[i]);
+        if (a.lane[i] >= 0) lanesOf(a.kind[i]).get(a.lane[i]).fileRear(x, a.w[i]);
+    }
+
+    // Vehicles and logs snap by truncation, critters by rounding (their y drifts)
+    private int snapX(int i) {
+        byte k = actors.kind[i];
+        return k == EntityStore.BIRD || k == EntityStore.SNAKE ? (int)Math.round(actors.x[i]) : (int)actors.x[i];
+    }
+    private int snapY(int i) {
+        byte k = actors.kind[i];
+        return k == EntityStore.BIRD || k == EntityStore.SNAKE ? (int)Math.round(actors.y[i]) : (int)actors.y[i];
+    }
+
+    // Axis-aligned box overlap, same rules as java.awt.Rectangle.intersects
+    static boolean overlaps(int ax, int ay, int aw, int ah, int bx, int by, int bw, int bh) {
+        if (aw <= 0 || ah <= 0 || bw <= 0 || bh <= 0) return false;
+        return ax < bx + bw && bx < ax + aw && ay < by + bh && by < ay + ah;
+    }
+
+    // One pass per lane over its ring. Vehicle speeds vary, so a faster one can
+    // pass the one ahead between ticks; settle() restores x order first.
+    void resolveVehicleGapsSingleTrack() {
+        EntityStore a = actors;
+        for (int li = 0; li < roadLanes.size(); li++) {
+            Lane lane = roadLanes.get(li);
+            lane.settle(a.x);
+            int n = lane.members();
+            for (int i=0;i<n-1;i++){
+                int A = lane.member(i);
+                int B = lane.member(i+1);
+                int needed = ((int)a.x[A] + a.w[A] + VEHICLE_MIN_GAP) - (int)a.x[B];
+                if (needed > 0) {
+                    double sa = a.speed[A];
+                    double sb = a.speed[B];
+                    if (Math.signum(sa) == Math.signum(sb)) {
+                        if (sa > 0) a.x[B] += needed;
+                        else        a.x[A] -= needed;
+                    } else {
+                        a.x[A] -= needed/2.0;
+                        a.x[B] += needed/2.0;
+                    }
+                }
+            }
+        }
+    }
+}
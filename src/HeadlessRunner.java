@@ -0,0 +1,60 @@
+/**
+ * Plays seeded games against GameSimulation with no window and reports
+ * simulation throughput. The player is a random button-masher, which is
+ * enough to exercise every level through the skip key. It also reports
+ * heap bytes allocated per tick by level, measured around step() only, so
+ * allocation on the tick path shows up as a number instead of GC pauses.
+ *
+ * Usage: java -Djava.awt.headless=true HeadlessRunner [games] [seed] [maxTicks]
+ */
+public class HeadlessRunner {
+
+    public static void main(String[] args) {
+        int games     = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed     = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        int maxTicks  = args.length > 2 ? Integer.parseInt(args[2]) : 60 * 60 * 5; // 5 min of play
+
+        long totalTicks = 0, totalScore = 0;
+        int finished = 0;
+        int levels = LevelSet.standard().highest() + 1;                // indexed by level id
+        long[] allocBytes = new long[levels], allocTicks = new long[levels];
+        boolean metered = AllocationMeter.supported();
+        String pools = "";
+        long t0 = System.nanoTime();
+
+        for (int g = 0; g < games; g++) {
+            GameSimulation sim = new GameSimulation(seed + g);
+            java.util.Random bot = new java.util.Random(~(seed + g));
+            InputFrame in = new InputFrame();
+
+            while (!sim.isOver() && sim.ticks() < maxTicks) {
+                in.clear();
+                if (bot.nextInt(8) == 0) in.add((byte) (InputFrame.MOVE_LEFT + bot.nextInt(4)));
+                if (bot.nextInt(6) == 0) in.add((byte) (InputFrame.FIRE_LEFT + bot.nextInt(4)));
+                if (bot.nextInt(600) == 0) in.add(InputFrame.SKIP);
+                int lvl = sim.level();
+                long before = metered ? AllocationMeter.threadAllocatedBytes() : 0;
+                sim.step(in);
+                if (metered) {
+                    allocBytes[lvl] += AllocationMeter.threadAllocatedBytes() - before;
+                    allocTicks[lvl]++;
+                }
+                totalTicks++;
+            }
+            if (sim.isOver()) { finished++; totalScore += sim.finalScore(); }
+            pools = sim.poolStats();
+        }
+
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("games=%d finished=%d avgScore=%.1f%n",
+                games, finished, finished == 0 ? 0.0 : totalScore / (double) finished);
+        System.out.printf("%.2fs  %.0f games/s  %.0f ticks/s%n", secs, games / secs, totalTicks / secs);
+        if (metered) {
+            StringBuilder sb = new StringBuilder("alloc B/tick");
+            for (int l = 1; l < allocTicks.length; l++)
+                if (allocTicks[l] > 0) sb.append(String.format("  L%d=%.1f", l, allocBytes[l] / (double) allocTicks[l]));
+            System.out.println(sb);
+        }
+        System.out.println("pools (last game): " + pools);
+    }
+}
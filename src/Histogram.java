@@ -0,0 +1,79 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram in the HdrHistogram style: values below 32 are
+ * counted exactly, above that every power of two is split into 32 equal
+ * buckets, so any recorded value is known to within about 3% whatever its
+ * magnitude. Memory is fixed by the highest trackable value; larger
+ * values are clamped to it (max still reports the true value).
+ *
+ * One thread records, any thread reads. Readers see counts a few updates
+ * stale at worst, which is fine for monitoring; reset() from a reader can
+ * drop an update that races with it.
+ */
+final class Histogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final long highest;
+    private final AtomicLongArray counts;
+    private volatile long max = 0;
+    private volatile long total = 0;
+    private volatile long sum = 0;
+
+    Histogram(long highest) {
+        this.highest = Math.max(SUB, highest);
+        counts = new AtomicLongArray(index(this.highest) + 1);
+    }
+
+    // Writer side
+    void record(long v) {
+        if (v < 0) v = 0;
+        if (v > max) max = v;
+        int i = index(Math.min(v, highest));
+        counts.lazySet(i, counts.get(i) + 1);
+        sum += v;
+        total++;
+    }
+
+    long count() { return total; }
+    long max()   { return max; }
+    double mean() { long n = total; return n == 0 ? 0 : (double) sum / n; }
+
+    // Smallest bucket upper bound covering p percent of the values (0 if empty)
+    long percentile(double p) {
+        long n = 0;
+        int len = counts.length();
+        for (int i = 0; i < len; i++) n += counts.get(i);
+        if (n == 0) return 0;
+        long want = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < len; i++) {
+            seen += counts.get(i);
+            if (seen >= want) return Math.min(upper(i), max);
+        }
+        return max;
+    }
+
+    void reset() {
+        for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+        max = 0;
+        total = 0;
+        sum = 0;
+    }
+
+    private static int index(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int shift = exp - SUB_BITS;
+        return (shift + 1) * SUB + (int) ((v >>> shift) - SUB);
+    }
+
+    // Highest value that lands in bucket i
+    private static long upper(int i) {
+        if (i < SUB) return i;
+        int shift = i / SUB - 1;
+        long lower = (long) (SUB + i % SUB) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
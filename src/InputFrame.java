@@ -0,0 +1,33 @@
+/**
+ * Player actions applied at the start of one simulation tick, in press order.
+ * Kept free of AWT key codes so the simulation can be driven headless;
+ * GamePanel maps keys onto these actions.
+ */
+final class InputFrame {
+    static final byte MOVE_LEFT   = 1;
+    static final byte MOVE_RIGHT  = 2;
+    static final byte MOVE_UP     = 3;
+    static final byte MOVE_DOWN   = 4;
+    static final byte FIRE_LEFT   = 5;
+    static final byte FIRE_RIGHT  = 6;
+    static final byte FIRE_UP     = 7;
+    static final byte FIRE_DOWN   = 8;
+    static final byte MODE_SINGLE = 9;
+    static final byte MODE_SPREAD = 10;
+    static final byte MODE_NOVA   = 11;
+    static final byte PAUSE       = 12;
+    static final byte HELP        = 13;
+    static final byte SKIP        = 14;
+
+    private byte[] actions = new byte[8];
+    private int count = 0;
+
+    void add(byte action) {
+        if (count == actions.length) actions = java.util.Arrays.copyOf(actions, count * 2);
+        actions[count++] = action;
+    }
+
+    int size()         { return count; }
+    byte get(int i)    { return actions[i]; }
+    void clear()       { count = 0; }
+}
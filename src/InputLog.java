@@ -0,0 +1,206 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Recording of one game: the simulation seed and every input action with
+ * the step it was applied on. GameSimulation only draws from its seeded
+ * Random and sees input only through step(InputFrame), so feeding the
+ * same actions back on the same steps replays the game exactly; the
+ * stored checksums show where a replay stops agreeing.
+ *
+ * File layout (big-endian):
+ *   int "FRIN" | short version | short 0 | long seed
+ *   events  varint stepDelta | byte action        (action 1..14, deltas from the previous event)
+ *   end     varint stepDelta | byte 0             (delta to the total step count)
+ *           int finalScore (-1 if unfinished) | varint n | n x long checksum
+ * The checksums are taken after every CHECK_EVERY steps and after the last one.
+ * A typical event takes two bytes.
+ */
+final class InputLog {
+    static final int CHECK_EVERY = 600;   // 10 s of play
+
+    private static final int MAGIC = 0x4652494E;   // "FRIN"
+    private static final short VERSION = 1;
+
+    final long seed;
+    private byte[] events = new byte[256];
+    private int eventBytes = 0;
+    private int lastEventStep = 0;
+    private int steps = 0;
+    private int finalScore = -1;
+    private long[] checks = new long[16];
+    private int checkCount = 0;
+    private boolean finished = false;
+
+    InputLog(long seed) { this.seed = seed; }
+
+    int steps()      { return steps; }
+    int finalScore() { return finalScore; }
+    boolean finished() { return finished; }
+
+    // Recording: the actions about to be applied on the next step
+    void record(InputFrame in) {
+        for (int i = 0; i < in.size(); i++) {
+            putVarint(steps - lastEventStep);
+            putByte(in.get(i));
+            lastEventStep = steps;
+        }
+    }
+
+    // Recording: one step has run
+    void stepped(GameSimulation sim) {
+        steps++;
+        if (steps % CHECK_EVERY == 0) addCheck(sim.checksum());
+    }
+
+    // Recording: closes the log on the simulation's current state
+    void finish(GameSimulation sim) {
+        if (finished) return;
+        finished = true;
+        finalScore = sim.isOver() ? sim.finalScore() : -1;
+        addCheck(sim.checksum());
+    }
+
+    void write(Path file) throws IOException {
+        if (!finished) throw new IllegalStateException("recording not finished");
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeLong(seed);
+            out.write(events, 0, eventBytes);
+            writeVarint(out, steps - lastEventStep);
+            out.writeByte(0);
+            out.writeInt(finalScore);
+            writeVarint(out, checkCount);
+            for (int i = 0; i < checkCount; i++) out.writeLong(checks[i]);
+        }
+    }
+
+    static InputLog read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION)
+                throw new IOException(file + " is not an input recording");
+            in.readShort();
+            InputLog log = new InputLog(in.readLong());
+            while (true) {
+                int delta = readVarint(in);
+                byte action = in.readByte();
+                log.lastEventStep += delta;
+                if (action == 0) break;
+                if (action > InputFrame.SKIP) throw new IOException(file + ": bad action " + action);
+                log.putVarint(delta);
+                log.putByte(action);
+            }
+            log.steps = log.lastEventStep;
+            log.finalScore = in.readInt();
+            int n = readVarint(in);
+            for (int i = 0; i < n; i++) log.addCheck(in.readLong());
+            log.finished = true;
+            return log;
+        } catch (EOFException e) {
+            throw new IOException(file + " is truncated", e);
+        }
+    }
+
+    // Playback over a finished log
+    Cursor replay() { return new Cursor(); }
+
+    final class Cursor {
+        private int pos = 0;
+        private int step = 0;
+        private int nextEvent = -1;   // step of the pending event, -1 when none are left
+        private byte nextAction;
+        private int divergedAt = -1;
+
+        private Cursor() { advance(); }
+
+        boolean hasNext() { return step < steps; }
+        int step()        { return step; }
+
+        // First step after which the replay's checksum differed, or -1
+        int divergedAt()  { return divergedAt; }
+
+        // Fills in the actions for the next step
+        void next(InputFrame in) {
+            in.clear();
+            while (nextEvent == step) {
+                in.add(nextAction);
+                advance();
+            }
+            step++;
+        }
+
+        // After the step has run: compares with the recorded checksum, if one falls here
+        boolean verify(GameSimulation sim) {
+            if (divergedAt >= 0) return false;
+            int k = -1;
+            if (step == steps) k = checkCount - 1;
+            else if (step % CHECK_EVERY == 0) k = step / CHECK_EVERY - 1;
+            if (k < 0 || k >= checkCount) return true;
+            if (checks[k] == sim.checksum()) return true;
+            divergedAt = step;
+            return false;
+        }
+
+        private void advance() {
+            if (pos >= eventBytes) { nextEvent = -1; return; }
+            int delta = 0, shift = 0;
+            byte b;
+            do {
+                b = events[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            nextEvent = (nextEvent < 0 ? 0 : nextEvent) + delta;
+            nextAction = events[pos++];
+        }
+    }
+
+    private void addCheck(long c) {
+        if (checkCount == checks.length) checks = Arrays.copyOf(checks, checkCount * 2);
+        checks[checkCount++] = c;
+    }
+
+    private void putByte(int b) {
+        if (eventBytes == events.length) events = Arrays.copyOf(events, eventBytes * 2);
+        events[eventBytes++] = (byte) b;
+    }
+
+    private void putVarint(int v) {
+        while ((v & ~0x7F) != 0) {
+            putByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        putByte(v);
+    }
+
+    private static void writeVarint(DataOutputStream out, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int v = 0, shift = 0;
+        byte b;
+        do {
+            if (shift > 28) throw new IOException("bad varint");
+            b = in.readByte();
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return v;
+    }
+}
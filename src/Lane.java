@@ -2,11 +2,85 @@ class Lane {
     final int y;        // top pixel of the lane
     final double speed; // +right, -left
     final int spawnEveryTicks;
-    public int spawnEvery;
+    int dueTick = -1;   // last tick the spawn schedule called this lane
+
+    // Entry-side edge of the rearmost actor as filed in the grid: the lowest
+    // left edge on a lane running right, the highest right edge on one running left
+    int rear;
+
     Lane(int y, double speed, int spawnEveryTicks) {
         this.y = y;
         this.speed = speed;
         this.spawnEveryTicks = spawnEveryTicks;
+        clearRear();
     }
-}
 
+    void clearRear() { rear = speed > 0 ? Integer.MAX_VALUE : Integer.MIN_VALUE; }
+
+    void fileRear(int x, int w) {
+        if (speed > 0) rear = Math.min(rear, x);
+        else rear = Math.max(rear, x + w);
+    }
+
+    // Whether an actor w wide fits at entry x with gap on both sides. Every
+    // actor runs the lane's way and is culled past the far edge, so nothing
+    // sits beyond the entry box and the rear edge alone decides.
+    boolean entryClear(int x, int w, int gap) {
+        return speed > 0 ? rear >= x + w + gap : rear <= x - gap;
+    }
+
+    // The lane's actor slots by x, lowest first. A ring, because spawns and
+    // culls both happen at the ends. Actors in a lane move at slightly different
+    // speeds, so order can also drift by a swap of neighbours; settle() puts it
+    // back with an insertion pass that is linear while nothing has overtaken.
+    // (Critters that turn around can drift further; nothing relies on their order.)
+    private int[] ring = new int[8];
+    private int head, members;
+
+    int members() { return members; }
+
+    int member(int i) { return ring[(head + i) & (ring.length - 1)]; }
+
+    private void set(int i, int slot) { ring[(head + i) & (ring.length - 1)] = slot; }
+
+    // Slots join in x order; a spawn lands at one end without shifting
+    void join(int slot, double[] x) {
+        if (members == ring.length) grow();
+        int i = members;
+        if (members > 0 && x[slot] < x[member(0)]) {
+            head = (head - 1) & (ring.length - 1);
+            i = 0;
+        } else {
+            while (i > 0 && x[member(i - 1)] > x[slot]) { set(i, member(i - 1)); i--; }
+        }
+        set(i, slot);
+        members++;
+    }
+
+    // Follows EntityStore.compact(): renumbers survivors, drops the dead
+    void remap(int[] moved) {
+        int n = 0;
+        for (int i = 0; i < members; i++) {
+            int to = moved[member(i)];
+            if (to >= 0) set(n++, to);
+        }
+        members = n;
+    }
+
+    // Stable insertion pass by x: a linear check while no one has overtaken
+    void settle(double[] x) {
+        for (int i = 1; i < members; i++) {
+            int slot = member(i);
+            int j = i;
+            while (j > 0 && x[member(j - 1)] > x[slot]) { set(j, member(j - 1)); j--; }
+            if (j != i) set(j, slot);
+        }
+    }
+
+    private void grow() {
+        int[] r = new int[ring.length * 2];
+        for (int i = 0; i < members; i++) r[i] = member(i);
+        ring = r;
+        head = 0;
+    }
+}
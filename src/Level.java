@@ -0,0 +1,124 @@
+/**
+ * One level of the table in LevelSet: board rows, what kills and what can
+ * be shot, how it is won, and how each kind of lane spawns. GameSimulation
+ * looks everything up here instead of branching on the level number, so a
+ * new level is a few lines of levels.txt.
+ *
+ * One instance serves every simulation playing the set, and frames hand
+ * its rows and help to the view by reference. The fields stay writable for
+ * the loaders, so everything past loading only reads them; Tuning edits
+ * copies, and copy() duplicates every array so a copy shares nothing.
+ */
+final class Level {
+    // Row types (levels.txt "rows" characters)
+    static final byte HUD = '-', BARE = '.', GOAL = 'G', START = 'S', WATER = 'W', ROAD = 'R', GRASS = 'g', ROUGH = 'u';
+    static final String ROW_TYPES = "-.GSWRgu";
+
+    // How a level is won
+    static final int WIN_NONE = 0, WIN_REACH = 1, WIN_KILLS = 2;
+
+    final int id;
+    final String title;
+    byte[] rows;             // GameSimulation.ROWS entries
+    int hazards;             // SpatialGrid layers that kill the frog
+    int shoot;               // SpatialGrid layers shots hit; 0: no firing
+    int rowBonus;            // points per new row climbed
+    int win = WIN_NONE;
+    int winValue;            // reach: bonus points; kills: how many
+    int next;                // level after a win; 0: the win ends the game
+    int endBonus;            // added to the final score when a win ends the game
+    String[] help = new String[0];
+    final Spawn road = new Spawn(), river = new Spawn(), critter = new Spawn();
+
+    Level(int id, String title, byte[] rows) {
+        this.id = id;
+        this.title = title;
+        this.rows = rows;
+    }
+
+    boolean water(int row) { return row >= 0 && row < rows.length && rows[row] == WATER; }
+
+    Spawn spawn(String kind) {
+        return switch (kind) {
+            case "road" -> road;
+            case "river" -> river;
+            case "critter" -> critter;
+            default -> null;
+        };
+    }
+
+    Level copy() {
+        Level l = new Level(id, title, rows.clone());
+        l.hazards = hazards; l.shoot = shoot; l.rowBonus = rowBonus;
+        l.win = win; l.winValue = winValue; l.next = next; l.endBonus = endBonus;
+        l.help = help.clone();
+        l.road.set(road); l.river.set(river); l.critter.set(critter);
+        return l;
+    }
+
+    /** Lanes of one kind and how they spawn. */
+    static final class Spawn {
+        double every = 1, speed = 1, chance = 1;
+        int seed;
+        double extra;
+        double truck, seedTruck, truckSpeed = 1;
+        double bird = 1, snake = 1;
+        int min, max;
+        double doubleChance;
+        double wiggle, flip;
+
+        int lanes;
+        int[] laneRow = new int[0];
+        double[] laneSpeed = new double[0];
+        int[] laneTicks = new int[0];
+
+        // Population mode (L2 critters) instead of cadence spawning
+        boolean population() { return max > 0; }
+
+        // Ticks between spawns for lane i, after the multiplier
+        int ticks(int i) { return Math.max(1, (int) Math.round(laneTicks[i] * every)); }
+
+        void addLane(int row, double laneSpeed, int ticks) {
+            laneRow = java.util.Arrays.copyOf(laneRow, lanes + 1);
+            this.laneSpeed = java.util.Arrays.copyOf(this.laneSpeed, lanes + 1);
+            laneTicks = java.util.Arrays.copyOf(laneTicks, lanes + 1);
+            laneRow[lanes] = row;
+            this.laneSpeed[lanes] = laneSpeed;
+            laneTicks[lanes] = ticks;
+            lanes++;
+        }
+
+        // levels.txt "spawn" keys; false for an unknown key
+        boolean set(String key, double v) {
+            switch (key) {
+                case "every"      -> every = v;
+                case "speed"      -> speed = v;
+                case "chance"     -> chance = v;
+                case "seed"       -> seed = (int) v;
+                case "extra"      -> extra = v;
+                case "truck"      -> truck = v;
+                case "seedTruck"  -> seedTruck = v;
+                case "truckSpeed" -> truckSpeed = v;
+                case "bird"       -> bird = v;
+                case "snake"      -> snake = v;
+                case "min"        -> min = (int) v;
+                case "max"        -> max = (int) v;
+                case "double"     -> doubleChance = v;
+                case "wiggle"     -> wiggle = v;
+                case "flip"       -> flip = v;
+                default -> { return false; }
+            }
+            return true;
+        }
+
+        private void set(Spawn s) {
+            every = s.every; speed = s.speed; chance = s.chance;
+            seed = s.seed; extra = s.extra;
+            truck = s.truck; seedTruck = s.seedTruck; truckSpeed = s.truckSpeed;
+            bird = s.bird; snake = s.snake;
+            min = s.min; max = s.max; doubleChance = s.doubleChance;
+            wiggle = s.wiggle; flip = s.flip;
+            lanes = s.lanes; laneRow = s.laneRow.clone(); laneSpeed = s.laneSpeed.clone(); laneTicks = s.laneTicks.clone();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * A level's static scenery (HUD bar, tile rows, road stripes) rendered once
+ * into an opaque image that the view blits with a single drawImage per frame.
+ * Lane layout only changes when the simulation sets up a level, so the view
+ * keeps one of these until the level's rows or its road lanes change.
+ */
+final class LevelBackground {
+    static final int TILE = GameSimulation.TILE;
+    static final int COLS = GameSimulation.COLS;
+    static final int ROWS = GameSimulation.ROWS;
+    static final int WIDTH = GameSimulation.WIDTH;
+    static final int HEIGHT = GameSimulation.HEIGHT;
+
+    private final byte[] rows;
+    private final int[] roadLaneY;
+    private final GraphicsConfiguration gc;
+    final BufferedImage image;
+
+    // gc may be null (not yet displayable, headless benches): plain RGB image then
+    LevelBackground(byte[] rows, int[] roadLaneY, int roadLanes, Color panelBg, GraphicsConfiguration gc) {
+        this.rows = rows;
+        this.roadLaneY = java.util.Arrays.copyOf(roadLaneY, roadLanes);
+        this.gc = gc;
+        image = (gc != null)
+                ? gc.createCompatibleImage(WIDTH, HEIGHT, Transparency.OPAQUE)
+                : new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        g.setColor(panelBg);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        paint(g);
+        g.dispose();
+    }
+
+    // Level row tables are shared and never change, so identity is enough
+    boolean matches(byte[] rows, int[] roadLaneY, int roadLanes, GraphicsConfiguration gc) {
+        if (rows != this.rows || gc != this.gc || roadLanes != this.roadLaneY.length) return false;
+        for (int i = 0; i < roadLanes; i++) if (roadLaneY[i] != this.roadLaneY[i]) return false;
+        return true;
+    }
+
+    private void paint(Graphics2D g) {
+        //  HUD BAR
+        g.setColor(new Color(22,18,32));
+        g.fillRect(0,0,WIDTH,TILE);
+
+        // Rows by type; bare rows keep the panel background
+        for (int r = 1; r < ROWS; r++) {
+            switch (rows[r]) {
+                case Level.GOAL  -> drawRow(g, r, Assets.tileGoal(), new Color(72,160,72));
+                case Level.START -> drawRow(g, r, Assets.tileStart(), new Color(72,160,72));
+                case Level.WATER -> drawRow(g, r, Assets.tileWater(), new Color(40,88,152));
+                case Level.ROAD  -> drawRow(g, r, Assets.tileRoad(), new Color(56,56,56));
+                case Level.GRASS -> drawRow(g, r, Assets.tileGrass(), new Color(72,160,72));
+                case Level.ROUGH -> drawRow(g, r, Assets.tileuglyGrass(), new Color(120,160,80));
+                default -> { }
+            }
+        }
+        drawRoadMarks(g);
+    }
+
+    private static void drawRow(Graphics2D g, int row, BufferedImage tile, Color fallback) {
+        int y = row * TILE;
+        if (tile != null) {
+            for (int c=0;c<COLS;c++) g.drawImage(tile, c*TILE, y, TILE, TILE, null);
+        } else {
+            g.setColor(fallback);
+            g.fillRect(0, y, WIDTH, TILE);
+        }
+    }
+
+    private void drawRoadMarks(Graphics2D g) {
+        BufferedImage mark = Assets.tileRoadMark();
+        if (mark != null) {
+            for (int laneY : roadLaneY)
+                for (int x=0;x<WIDTH;x+=TILE)
+                    g.drawImage(mark, x, laneY + TILE/2 - 2, TILE, 4, null);
+        } else {
+            g.setColor(new Color(236,214,96));
+            for (int laneY : roadLaneY)
+                for (int x=0;x<WIDTH;x+=60) g.fillRect(x, laneY + TILE/2 - 1, 30, 2);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The level table: every Level by id, for O(1) lookup when the game
+ * changes level. The text form is assets/levels/levels.txt (its header
+ * documents the format), or the file named by -Dfrogger.levels.
+ *
+ * Parsing and checking the text happens once per edit: the result is
+ * kept in levels.cache (-Dfrogger.levels.cache), keyed by the text's
+ * length and CRC, and later starts just decode that. A missing, stale or
+ * unreadable cache is rebuilt; one that cannot be written is skipped.
+ *
+ * Cache layout (big-endian):
+ *   int "FRLV" | short version | short 0 | long key | int levels
+ *   per level  int id | UTF title | ROWS bytes | int hazards, shoot, rowBonus, win, winValue, next, endBonus
+ *              int n | n x UTF help | road, river, critter spawn blocks
+ *   per spawn  the Level.Spawn numbers in declaration order | int lanes | lanes x (int row, double speed, int ticks)
+ */
+final class LevelSet {
+    static final String RESOURCE = "assets/levels/levels.txt";
+
+    private static final int MAGIC = 0x46524C56;   // "FRLV"
+    private static final short VERSION = 1;
+
+    private final Level[] byId;
+    private final Level[] levels;   // file order
+    final int first;
+
+    LevelSet(List<Level> list) {
+        if (list.isEmpty()) throw new IllegalArgumentException("no levels");
+        int highest = 0;
+        for (Level l : list) {
+            if (l.id <= 0) throw new IllegalArgumentException("level ids start at 1: " + l.id);
+            highest = Math.max(highest, l.id);
+        }
+        byId = new Level[highest + 1];
+        for (Level l : list) {
+            if (byId[l.id] != null) throw new IllegalArgumentException("level " + l.id + " defined twice");
+            byId[l.id] = l;
+        }
+        for (Level l : list)
+            if (l.next != 0 && (l.next >= byId.length || byId[l.next] == null))
+                throw new IllegalArgumentException("level " + l.id + ": next level " + l.next + " is not defined");
+        levels = list.toArray(new Level[0]);
+        first = levels[0].id;
+    }
+
+    Level get(int id) {
+        if (id <= 0 || id >= byId.length || byId[id] == null) throw new IllegalArgumentException("no level " + id);
+        return byId[id];
+    }
+
+    int highest()    { return byId.length - 1; }
+    Level[] levels() { return levels.clone(); }
+
+    // The game's table, loaded on first use
+    static LevelSet standard() { return Standard.SET; }
+
+    private static final class Standard {
+        static final LevelSet SET;
+        static {
+            try {
+                SET = load();
+            } catch (IOException e) {
+                throw new IllegalStateException("levels: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    static LevelSet load() throws IOException {
+        Flight.AssetLoad ev = Flight.ON ? new Flight.AssetLoad() : null;
+        if (ev != null) { ev.asset = "levels"; ev.begin(); }
+        String source = System.getProperty("frogger.levels");
+        byte[] text;
+        if (source != null) {
+            text = Files.readAllBytes(Paths.get(source));
+        } else {
+            source = RESOURCE;
+            Path f = Paths.get(RESOURCE);
+            if (Files.exists(f)) text = Files.readAllBytes(f);
+            else try (InputStream in = LevelSet.class.getResourceAsStream("/" + RESOURCE)) {
+                if (in == null) throw new IOException(RESOURCE + " not found");
+                text = in.readAllBytes();
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(text);
+        long key = ((long) text.length << 32) | crc.getValue();
+
+        Path cache = Paths.get(System.getProperty("frogger.levels.cache", "levels.cache"));
+        LevelSet set = readCache(cache, key);
+        if (set == null) {
+            set = parse(new String(text, StandardCharsets.UTF_8), source);
+            writeCache(cache, key, set);
+        }
+        if (ev != null) { ev.found = true; ev.bytes = text.length; ev.commit(); }
+        return set;
+    }
+
+    static LevelSet parse(String text, String source) throws IOException {
+        List<Level> list = new ArrayList<>();
+        Level cur = null;
+        List<String> help = new ArrayList<>();
+        String[] lines = text.split("\r?\n");
+        for (int n = 0; n < lines.length; n++) {
+            String line = lines[n].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] t = line.split("\\s+");
+            String where = source + ":" + (n + 1) + ": ";
+            try {
+                if (t[0].equals("level")) {
+                    if (cur != null) cur.help = help.toArray(new String[0]);
+                    help.clear();
+                    if (t.length < 2) throw new IllegalArgumentException("level needs an id");
+                    int id = Integer.parseInt(t[1]);
+                    String title = line.substring("level".length()).trim().substring(t[1].length()).trim();
+                    cur = new Level(id, title, null);
+                    list.add(cur);
+                    continue;
+                }
+                if (cur == null) throw new IllegalArgumentException("'" + t[0] + "' before the first level");
+                switch (t[0]) {
+                    case "rows" -> {
+                        if (t.length != 2 || t[1].length() != GameSimulation.ROWS)
+                            throw new IllegalArgumentException("rows needs " + GameSimulation.ROWS + " characters");
+                        for (char c : t[1].toCharArray())
+                            if (Level.ROW_TYPES.indexOf(c) < 0) throw new IllegalArgumentException("unknown row type '" + c + "'");
+                        cur.rows = t[1].getBytes(StandardCharsets.US_ASCII);
+                    }
+                    case "hazards" -> cur.hazards = layers(t);
+                    case "shoot" -> cur.shoot = layers(t);
+                    case "rowbonus" -> cur.rowBonus = Integer.parseInt(arg(t, 1));
+                    case "win" -> {
+                        String how = arg(t, 1);
+                        if (how.equals("reach")) cur.win = Level.WIN_REACH;
+                        else if (how.equals("kills")) cur.win = Level.WIN_KILLS;
+                        else throw new IllegalArgumentException("win reach|kills, not " + how);
+                        cur.winValue = Integer.parseInt(arg(t, 2));
+                    }
+                    case "next" -> cur.next = Integer.parseInt(arg(t, 1));
+                    case "end" -> { cur.next = 0; cur.endBonus = Integer.parseInt(arg(t, 1)); }
+                    case "help" -> help.add(line.substring(4).trim());
+                    case "spawn" -> {
+                        Level.Spawn s = spawn(cur, arg(t, 1));
+                        for (int i = 2; i < t.length; i++) {
+                            int eq = t[i].indexOf('=');
+                            if (eq <= 0 || !s.set(t[i].substring(0, eq), Double.parseDouble(t[i].substring(eq + 1))))
+                                throw new IllegalArgumentException("bad spawn setting " + t[i]);
+                        }
+                    }
+                    case "lane" -> {
+                        Level.Spawn s = spawn(cur, arg(t, 1));
+                        int row = Integer.parseInt(arg(t, 2));
+                        int ticks = Integer.parseInt(arg(t, 4));
+                        if (row < 1 || row >= GameSimulation.ROWS) throw new IllegalArgumentException("lane row out of range: " + row);
+                        if (ticks <= 0) throw new IllegalArgumentException("lane ticks must be positive");
+                        s.addLane(row, Double.parseDouble(arg(t, 3)), ticks);
+                    }
+                    default -> throw new IllegalArgumentException("unknown keyword '" + t[0] + "'");
+                }
+            } catch (IllegalArgumentException e) {   // NumberFormatException included
+                throw new IOException(where + e.getMessage(), e);
+            }
+        }
+        if (cur != null) cur.help = help.toArray(new String[0]);
+        for (Level l : list) if (l.rows == null) throw new IOException(source + ": level " + l.id + " has no rows");
+        try {
+            return new LevelSet(list);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(source + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String arg(String[] t, int i) {
+        if (i >= t.length) throw new IllegalArgumentException(t[0] + " is missing a value");
+        return t[i];
+    }
+
+    private static Level.Spawn spawn(Level l, String kind) {
+        Level.Spawn s = l.spawn(kind);
+        if (s == null) throw new IllegalArgumentException("lane kind road|river|critter, not " + kind);
+        return s;
+    }
+
+    private static int layers(String[] t) {
+        int mask = 0;
+        for (int i = 1; i < t.length; i++) {
+            mask |= switch (t[i]) {
+                case "car" -> SpatialGrid.CARS;
+                case "truck" -> SpatialGrid.TRUCKS;
+                case "log" -> SpatialGrid.LOGS;
+                case "bird" -> SpatialGrid.BIRDS;
+                case "snake" -> SpatialGrid.SNAKES;
+                default -> throw new IllegalArgumentException("unknown kind " + t[i]);
+            };
+        }
+        return mask;
+    }
+
+    // Binary cache
+
+    private static LevelSet readCache(Path file, long key) {
+        if (!Files.exists(file)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) return null;
+            in.readShort();
+            if (in.readLong() != key) return null;
+            int n = in.readInt();
+            List<Level> list = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                int id = in.readInt();
+                String title = in.readUTF();
+                byte[] rows = new byte[GameSimulation.ROWS];
+                in.readFully(rows);
+                Level l = new Level(id, title, rows);
+                l.hazards = in.readInt(); l.shoot = in.readInt(); l.rowBonus = in.readInt();
+                l.win = in.readInt(); l.winValue = in.readInt(); l.next = in.readInt(); l.endBonus = in.readInt();
+                l.help = new String[in.readInt()];
+                for (int h = 0; h < l.help.length; h++) l.help[h] = in.readUTF();
+                readSpawn(in, l.road); readSpawn(in, l.river); readSpawn(in, l.critter);
+                list.add(l);
+            }
+            return new LevelSet(list);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeCache(Path file, long key, LevelSet set) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(0);
+                out.writeLong(key);
+                out.writeInt(set.levels.length);
+                for (Level l : set.levels) {
+                    out.writeInt(l.id);
+                    out.writeUTF(l.title);
+                    out.write(l.rows);
+                    out.writeInt(l.hazards); out.writeInt(l.shoot); out.writeInt(l.rowBonus);
+                    out.writeInt(l.win); out.writeInt(l.winValue); out.writeInt(l.next); out.writeInt(l.endBonus);
+                    out.writeInt(l.help.length);
+                    for (String h : l.help) out.writeUTF(h);
+                    writeSpawn(out, l.road); writeSpawn(out, l.river); writeSpawn(out, l.critter);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("levels: cache not written: " + e);
+            try { Files.deleteIfExists(tmp); } catch (IOException ignored) {}
+        }
+    }
+
+    private static void writeSpawn(DataOutputStream out, Level.Spawn s) throws IOException {
+        out.writeDouble(s.every); out.writeDouble(s.speed); out.writeDouble(s.chance);
+        out.writeInt(s.seed); out.writeDouble(s.extra);
+        out.writeDouble(s.truck); out.writeDouble(s.seedTruck); out.writeDouble(s.truckSpeed);
+        out.writeDouble(s.bird); out.writeDouble(s.snake);
+        out.writeInt(s.min); out.writeInt(s.max); out.writeDouble(s.doubleChance);
+        out.writeDouble(s.wiggle); out.writeDouble(s.flip);
+        out.writeInt(s.lanes);
+        for (int i = 0; i < s.lanes; i++) {
+            out.writeInt(s.laneRow[i]);
+            out.writeDouble(s.laneSpeed[i]);
+            out.writeInt(s.laneTicks[i]);
+        }
+    }
+
+    private static void readSpawn(DataInputStream in, Level.Spawn s) throws IOException {
+        s.every = in.readDouble(); s.speed = in.readDouble(); s.chance = in.readDouble();
+        s.seed = in.readInt(); s.extra = in.readDouble();
+        s.truck = in.readDouble(); s.seedTruck = in.readDouble(); s.truckSpeed = in.readDouble();
+        s.bird = in.readDouble(); s.snake = in.readDouble();
+        s.min = in.readInt(); s.max = in.readInt(); s.doubleChance = in.readDouble();
+        s.wiggle = in.readDouble(); s.flip = in.readDouble();
+        int n = in.readInt();
+        if (n < 0 || n > GameSimulation.ROWS * 4) throw new IOException("bad lane count " + n);
+        for (int i = 0; i < n; i++) s.addLane(in.readInt(), in.readDouble(), in.readInt());
+    }
+}
@@ -0,0 +1,137 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Process-wide timing and population histograms, one set per level so a
+ * blown frame budget can be pinned to a level and to a part of the tick:
+ *
+ *   tick.Ln            whole simulation step (loop thread), ns
+ *   phase.<name>.Ln    the step's passes: spawn, move, index, shots, frog, ns
+ *   paint.Ln           one frame drawn (EDT or render thread), ns
+ *   count.<kind>.Ln    actors alive after a step, per type
+ *   gc                 collector pauses reported by the JVM, ns
+ *
+ * There is one set for every level id in the game's LevelSet. Each series
+ * is also registered as frogger:type=Histogram,name=<series> for jconsole
+ * and friends. Recording is a few array updates, so it stays on.
+ */
+final class Metrics {
+    // Step passes, in step() order
+    static final int SPAWN = 0, MOVE = 1, INDEX = 2, SHOTS = 3, FROG = 4;
+    static final String[] PHASES = { "spawn", "move", "index", "shots", "frog" };
+
+    // Actor census slots
+    static final int CARS = 0, TRUCKS = 1, LOGS = 2, BIRDS = 3, SNAKES = 4, SHOTS_ALIVE = 5, PUFFS = 6;
+    static final String[] KINDS = { "cars", "trucks", "logs", "birds", "snakes", "shots", "puffs" };
+
+    private static final long MAX_NANOS = 60_000_000_000L;   // a minute
+    private static final long MAX_COUNT = 1 << 16;
+
+    private static final Metrics INSTANCE = new Metrics();
+    static Metrics get() { return INSTANCE; }
+
+    // Indexed by level id; slot 0 collects ids the table does not have
+    private final Histogram[] tick, paint;
+    private final Histogram[][] phase, census;
+    private final Histogram gc = new Histogram(MAX_NANOS);
+
+    private Metrics() {
+        LevelSet set = LevelSet.standard();
+        int n = set.highest() + 1;
+        tick = new Histogram[n];
+        paint = new Histogram[n];
+        phase = new Histogram[n][PHASES.length];
+        census = new Histogram[n][KINDS.length];
+        for (int l = 0; l < n; l++) {
+            tick[l] = new Histogram(MAX_NANOS);
+            paint[l] = new Histogram(MAX_NANOS);
+            for (int p = 0; p < PHASES.length; p++) phase[l][p] = new Histogram(MAX_NANOS);
+            for (int k = 0; k < KINDS.length; k++) census[l][k] = new Histogram(MAX_COUNT);
+        }
+        watchGc();
+        register(set);
+    }
+
+    Histogram tick(int level)             { return tick[slot(level)]; }
+    Histogram paint(int level)            { return paint[slot(level)]; }
+    Histogram phase(int level, int p)     { return phase[slot(level)][p]; }
+    Histogram census(int level, int kind) { return census[slot(level)][kind]; }
+    Histogram gc()                        { return gc; }
+
+    private int slot(int level) { return level > 0 && level < tick.length ? level : 0; }
+
+    // Collector pauses arrive on a JMX notification thread, the gc series' only writer
+    private void watchGc() {
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(bean instanceof NotificationEmitter)) continue;
+            // Concurrent cycles run beside the application; only pauses stop the frame
+            String name = bean.getName();
+            if (name.contains("Concurrent") || name.contains("Cycles")) continue;
+            ((NotificationEmitter) bean).addNotificationListener((Notification n, Object hb) -> {
+                if (!"com.sun.management.gc.notification".equals(n.getType())) return;
+                Object info = ((CompositeData) n.getUserData()).get("gcInfo");
+                if (info instanceof CompositeData) {
+                    long ms = ((Number) ((CompositeData) info).get("duration")).longValue();
+                    gc.record(ms * 1_000_000L);
+                }
+            }, null, null);
+        }
+    }
+
+    private void register(LevelSet set) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for (Level level : set.levels()) {
+                int l = level.id;
+                expose(server, "tick.L" + l, tick[l], true);
+                expose(server, "paint.L" + l, paint[l], true);
+                for (int p = 0; p < PHASES.length; p++) expose(server, "phase." + PHASES[p] + ".L" + l, phase[l][p], true);
+                for (int k = 0; k < KINDS.length; k++) expose(server, "count." + KINDS[k] + ".L" + l, census[l][k], false);
+            }
+            expose(server, "gc", gc, true);
+        } catch (Exception | LinkageError e) {
+            System.err.println("metrics: JMX export unavailable: " + e);
+        }
+    }
+
+    private static void expose(MBeanServer server, String series, Histogram h, boolean nanos) throws Exception {
+        ObjectName name = new ObjectName("frogger:type=Histogram,name=" + series);
+        if (!server.isRegistered(name)) server.registerMBean(new View(h, nanos), name);
+    }
+
+    // JMX face of one series; timings in microseconds
+    public interface HistogramMXBean {
+        long getCount();
+        double getMean();
+        double getP50();
+        double getP90();
+        double getP99();
+        double getP999();
+        double getMax();
+        void reset();
+    }
+
+    static final class View implements HistogramMXBean {
+        private final Histogram h;
+        private final double scale;
+
+        View(Histogram h, boolean nanos) {
+            this.h = h;
+            this.scale = nanos ? 1e-3 : 1;
+        }
+
+        @Override public long getCount()  { return h.count(); }
+        @Override public double getMean() { return h.mean() * scale; }
+        @Override public double getP50()  { return h.percentile(50) * scale; }
+        @Override public double getP90()  { return h.percentile(90) * scale; }
+        @Override public double getP99()  { return h.percentile(99) * scale; }
+        @Override public double getP999() { return h.percentile(99.9) * scale; }
+        @Override public double getMax()  { return h.max() * scale; }
+        @Override public void reset()     { h.reset(); }
+    }
+}
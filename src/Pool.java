@@ -0,0 +1,43 @@
+import java.util.function.Supplier;
+
+/**
+ * Bounded free list of reusable objects, filled up front. acquire() hands
+ * out a pooled instance and only falls back to the factory when the pool
+ * is empty (counted as a miss); release() keeps at most capacity instances
+ * and lets the rest go to the GC. The counters show whether the pool was
+ * sized correctly.
+ */
+final class Pool<T> {
+    private final Object[] free;
+    private final Supplier<T> factory;
+    private int size;
+
+    private int inUse, peakInUse;
+    private long misses;
+
+    Pool(int capacity, Supplier<T> factory) {
+        this.free = new Object[capacity];
+        this.factory = factory;
+        for (int i = 0; i < capacity; i++) free[i] = factory.get();
+        size = capacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    T acquire() {
+        if (++inUse > peakInUse) peakInUse = inUse;
+        if (size == 0) { misses++; return factory.get(); }
+        T t = (T) free[--size];
+        free[size] = null;
+        return t;
+    }
+
+    void release(T t) {
+        inUse--;
+        if (size < free.length) free[size++] = t;
+    }
+
+    int capacity()  { return free.length; }
+    int inUse()     { return inUse; }
+    int peakInUse() { return peakInUse; }
+    long misses()   { return misses; }
+}
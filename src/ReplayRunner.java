@@ -0,0 +1,46 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Replays a recorded game (see InputLog) headless at full speed and checks
+ * it against the recorded checksums. Repeating the replay gives a stable,
+ * input-for-input workload for profiling a session captured on a cabinet.
+ *
+ * Usage: java -Djava.awt.headless=true ReplayRunner game.frin [repeat]
+ */
+public class ReplayRunner {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: ReplayRunner <recording.frin> [repeat]");
+            System.exit(2);
+        }
+        InputLog log = InputLog.read(Paths.get(args[0]));
+        int repeat = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        InputFrame in = new InputFrame();
+        GameSimulation sim = null;
+        int diverged = -1;
+        long t0 = System.nanoTime();
+        for (int r = 0; r < repeat; r++) {
+            sim = new GameSimulation(log.seed);
+            InputLog.Cursor c = log.replay();
+            while (c.hasNext()) {
+                c.next(in);
+                sim.step(in);
+                c.verify(sim);
+            }
+            diverged = c.divergedAt();
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("seed=%016x steps=%d recordedScore=%d replayedScore=%d%n",
+                log.seed, log.steps(), log.finalScore(), sim.isOver() ? sim.finalScore() : -1);
+        System.out.printf("%.2fs  %.0f ticks/s  (%d runs)%n", secs, (double) log.steps() * repeat / secs, repeat);
+        if (diverged >= 0) {
+            System.out.println("DIVERGED by step " + diverged);
+            System.exit(1);
+        }
+        System.out.println("verified");
+    }
+}
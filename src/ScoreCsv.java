@@ -0,0 +1,187 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The scores.csv text format: player,score,when[,epochMillis]
+ * "when" is local "yyyy-MM-dd HH:mm" as the old scoreboard wrote it; the
+ * optional fourth column keeps exports lossless and is ignored by old
+ * readers. Players with commas, quotes or line breaks are quoted.
+ *
+ * Reader walks the input through one char buffer and reuses its field
+ * builders, so a file of any length is read in the same few kilobytes.
+ */
+final class ScoreCsv {
+    static final DateTimeFormatter WHEN = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private ScoreCsv() {}
+
+    static String format(long at) {
+        return WHEN.format(Instant.ofEpochMilli(at).atZone(ZoneId.systemDefault()));
+    }
+
+    // Local "yyyy-MM-dd HH:mm" to epoch millis; DateTimeException if it does not parse
+    static long parseWhen(CharSequence w) {
+        LocalDateTime t = w.length() == 16 ? fixed(w) : null;   // the common case, without the formatter
+        if (t == null) t = LocalDateTime.parse(w, WHEN);
+        return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // "yyyy-MM-dd HH:mm" by position, or null to let the formatter decide
+    private static LocalDateTime fixed(CharSequence w) {
+        if (w.charAt(4) != '-' || w.charAt(7) != '-' || w.charAt(10) != ' ' || w.charAt(13) != ':') return null;
+        int y = digits(w, 0, 4), mo = digits(w, 5, 7), d = digits(w, 8, 10), h = digits(w, 11, 13), mi = digits(w, 14, 16);
+        if ((y | mo | d | h | mi) < 0) return null;
+        return LocalDateTime.of(y, mo, d, h, mi);
+    }
+
+    private static int digits(CharSequence s, int from, int to) {
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    static void write(Writer out, String player, int score, long at) throws IOException {
+        writeField(out, player);
+        out.write(',');
+        out.write(Integer.toString(score));
+        out.write(',');
+        out.write(format(at));
+        out.write(',');
+        out.write(Long.toString(at));
+        out.write('\n');
+    }
+
+    private static void writeField(Writer out, String s) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) { out.write(s); return; }
+        out.write('"');
+        out.write(s.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    // Row-at-a-time reader; rows without a player, score and time are counted and skipped
+    static final class Reader implements Closeable {
+        private static final int FIELDS = 4;
+
+        private final java.io.Reader in;
+        private final char[] buf = new char[1 << 16];
+        private int pos = 0, lim = 0;
+        private final StringBuilder[] field = new StringBuilder[FIELDS];
+        private int fields;
+        private long skipped = 0;
+
+        private String player;
+        private int score;
+        private long at;
+
+        Reader(java.io.Reader in) {
+            this.in = in;
+            for (int i = 0; i < FIELDS; i++) field[i] = new StringBuilder();
+        }
+
+        boolean next() throws IOException {
+            while (readRow()) {
+                if (fields >= 3 && parse()) return true;
+                if (fields > 1 || field[0].length() > 0) skipped++;   // blank lines are not errors
+            }
+            return false;
+        }
+
+        String player() { return player; }
+        int score()     { return score; }
+        long at()       { return at; }
+        long skipped()  { return skipped; }
+
+        private boolean parse() {
+            try {
+                score = parseInt(field[1]);
+                at = fields > 3 && hasText(field[3]) ? parseLong(field[3]) : parseWhen(trim(field[2]));
+            } catch (NumberFormatException | DateTimeException e) {
+                return false;
+            }
+            player = trim(field[0]).toString();
+            return true;
+        }
+
+        // Splits one row into the field builders; quoted fields may span lines
+        private boolean readRow() throws IOException {
+            for (StringBuilder f : field) f.setLength(0);
+            fields = 0;
+            int c = read();
+            if (c < 0) return false;
+            boolean quoted = false;
+            while (c >= 0) {
+                if (quoted) {
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') { quoted = false; continue; }
+                    }
+                    put(c);
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields++;
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    put(c);
+                }
+                c = read();
+            }
+            fields++;
+            return true;
+        }
+
+        private void put(int c) {
+            if (fields < FIELDS) field[fields].append((char) c);
+        }
+
+        private int read() throws IOException {
+            if (pos == lim) {
+                lim = in.read(buf, 0, buf.length);
+                pos = 0;
+                if (lim <= 0) { lim = 0; return -1; }
+            }
+            return buf[pos++];
+        }
+
+        @Override public void close() throws IOException { in.close(); }
+
+        private static CharSequence trim(StringBuilder s) {
+            int a = 0, b = s.length();
+            while (a < b && s.charAt(a) <= ' ') a++;
+            while (b > a && s.charAt(b - 1) <= ' ') b--;
+            return s.subSequence(a, b);
+        }
+
+        private static boolean hasText(StringBuilder s) { return trim(s).length() > 0; }
+
+        private static int parseInt(StringBuilder s) {
+            int a = 0, b = s.length();
+            while (a < b && s.charAt(a) <= ' ') a++;
+            while (b > a && s.charAt(b - 1) <= ' ') b--;
+            return Integer.parseInt(s, a, b, 10);
+        }
+
+        private static long parseLong(StringBuilder s) {
+            int a = 0, b = s.length();
+            while (a < b && s.charAt(a) <= ' ') a++;
+            while (b > a && s.charAt(b - 1) <= ' ') b--;
+            return Long.parseLong(s, a, b, 10);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column copy of the score log with secondary indexes, for the scoreboard
+ * queries. Records are ids in log order; next to the columns it keeps
+ *
+ *   byScore   ids by score (highest first, older first on ties)
+ *   byTime    ids by epoch millis (log order on ties)
+ *   players   name to player id, each player's best game, and a chain of
+ *             that player's games (newest first)
+ *
+ * Appends are normally in time order and low scores, so both sorted
+ * arrays mostly grow at the end; a load builds them with one sort each.
+ * Queries hand back ids in board order, capped at a limit. A query over a
+ * time window ("today", "this week") starts at the window's first game in
+ * byTime and touches only the games inside it, keeping the best `limit`
+ * in a small heap, so its cost follows the window and not the whole log.
+ *
+ * Not thread-safe; ScoreStore guards it with its table lock.
+ */
+final class ScoreIndex {
+    private int n = 0;
+    private int[] score = new int[1024];
+    private long[] at = new long[1024];
+    private int[] player = new int[1024];
+    private int[] prevOfPlayer = new int[1024];
+    private int[] byScore = new int[1024];
+    private int[] byTime = new int[1024];
+    private boolean bulk = false;
+
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private String[] names = new String[64];
+    private int[] best = new int[64];      // id of each player's best game
+    private int[] latest = new int[64];    // head of each player's chain
+    private int[] seen = new int[64];
+    private int[] slot = new int[64];      // bestPerPlayer: where a player's game sits in its list
+    private int epoch = 0;
+
+    // Loading: defer the sorted arrays to endBulk()
+    void beginBulk() { bulk = true; }
+
+    void endBulk() {
+        bulk = false;
+        long[] key = new long[n];
+        for (int i = 0; i < n; i++) key[i] = scoreKey(i);
+        Arrays.sort(key);
+        for (int i = 0; i < n; i++) byScore[i] = (int) key[i];
+
+        boolean ordered = true;
+        for (int i = 0; i < n; i++) {
+            byTime[i] = i;
+            if (i > 0 && at[i] < at[i - 1]) ordered = false;
+        }
+        if (!ordered) mergeSortByTime(byTime, n);
+    }
+
+    void add(String name, int s, long t) {
+        if (n == score.length) grow();
+        int id = n++;
+        score[id] = s;
+        at[id] = t;
+
+        Integer p = playerIds.get(name);
+        if (p == null) {
+            p = playerIds.size();
+            if (p == names.length) growPlayers();
+            playerIds.put(name, p);
+            names[p] = name;
+            best[p] = id;
+            latest[p] = -1;
+        } else if (s > score[best[p]]) {
+            best[p] = id;
+        }
+        player[id] = p;
+        prevOfPlayer[id] = latest[p];
+        latest[p] = id;
+
+        if (bulk) return;
+        insert(byScore, id, scoreUpperBound(s));
+        insert(byTime, id, timeUpperBound(t));
+    }
+
+    void clear() {
+        n = 0;
+        playerIds.clear();
+        Arrays.fill(names, null);
+    }
+
+    int size()          { return n; }
+    int score(int id)   { return score[id]; }
+    long at(int id)     { return at[id]; }
+    String name(int id) { return names[player[id]]; }
+
+    // Best games at or after since
+    int[] top(long since, int limit) {
+        int lo = timeLowerBound(since);
+        if (lo == 0) return Arrays.copyOf(byScore, Math.min(limit, n));
+        return select(byTime, lo, n, limit);
+    }
+
+    // Each player's best game at or after since, best players first
+    int[] bestPerPlayer(long since, int limit) {
+        int lo = timeLowerBound(since);
+        if (lo == 0) return sorted(best, 0, playerIds.size(), limit);
+        epoch++;
+        if (seen.length < names.length) {
+            seen = new int[names.length];
+            slot = new int[names.length];
+        }
+        int[] ids = new int[Math.min(n - lo, playerIds.size())];
+        int k = 0;
+        for (int i = lo; i < n; i++) {
+            int id = byTime[i], p = player[id];
+            if (seen[p] != epoch) {
+                seen[p] = epoch;
+                slot[p] = k;
+                ids[k++] = id;
+            } else if (scoreKey(id) < scoreKey(ids[slot[p]])) {
+                ids[slot[p]] = id;
+            }
+        }
+        return select(ids, 0, k, limit);
+    }
+
+    // One player's best games at or after since
+    int[] player(String name, long since, int limit) {
+        Integer p = playerIds.get(name);
+        if (p == null) return new int[0];
+        int m = 0;
+        for (int id = latest[p]; id >= 0; id = prevOfPlayer[id]) if (at[id] >= since) m++;
+        int[] ids = new int[m];
+        for (int id = latest[p], i = 0; id >= 0; id = prevOfPlayer[id]) if (at[id] >= since) ids[i++] = id;
+        return sorted(ids, 0, m, limit);
+    }
+
+    // Board order of ids[from, to), first limit of them
+    private int[] sorted(int[] ids, int from, int to, int limit) {
+        long[] key = new long[to - from];
+        for (int i = from; i < to; i++) key[i - from] = scoreKey(ids[i]);
+        Arrays.sort(key);
+        int[] out = new int[Math.min(limit, key.length)];
+        for (int i = 0; i < out.length; i++) out[i] = (int) key[i];
+        return out;
+    }
+
+    // Same, keeping only the best limit in a max-heap of keys as it goes
+    private int[] select(int[] ids, int from, int to, int limit) {
+        if (to - from <= limit || limit <= 0) return sorted(ids, from, to, limit);
+        long[] heap = new long[limit];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            long key = scoreKey(ids[i]);
+            if (size < limit) {
+                int c = size++;
+                while (c > 0 && heap[(c - 1) >>> 1] < key) { heap[c] = heap[(c - 1) >>> 1]; c = (c - 1) >>> 1; }
+                heap[c] = key;
+            } else if (key < heap[0]) {
+                int c = 0;
+                for (int ch; (ch = 2 * c + 1) < size; c = ch) {
+                    if (ch + 1 < size && heap[ch + 1] > heap[ch]) ch++;
+                    if (key >= heap[ch]) break;
+                    heap[c] = heap[ch];
+                }
+                heap[c] = key;
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        int[] out = new int[size];
+        for (int i = 0; i < size; i++) out[i] = (int) heap[i];
+        return out;
+    }
+
+    // Sorts ascending as (score descending, id ascending)
+    private long scoreKey(int id) { return ((long) ~score[id] << 32) | id; }
+
+    // First position whose score is lower than s (after all equal ones)
+    private int scoreUpperBound(int s) {
+        int lo = 0, hi = n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (score[byScore[mid]] >= s) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int timeUpperBound(long t) {
+        int lo = 0, hi = n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (at[byTime[mid]] <= t) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int timeLowerBound(long t) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (at[byTime[mid]] < t) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // The new id is already counted in n; slots [pos, n-1) move up one
+    private void insert(int[] a, int id, int pos) {
+        System.arraycopy(a, pos, a, pos + 1, n - 1 - pos);
+        a[pos] = id;
+    }
+
+    private void mergeSortByTime(int[] a, int len) {
+        int[] tmp = new int[len];
+        for (int w = 1; w < len; w <<= 1) {
+            for (int lo = 0; lo < len - w; lo += w << 1) {
+                int mid = lo + w, hi = Math.min(lo + (w << 1), len);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) tmp[k++] = at[a[j]] < at[a[i]] ? a[j++] : a[i++];
+                while (i < mid) tmp[k++] = a[i++];
+                while (j < hi) tmp[k++] = a[j++];
+                System.arraycopy(tmp, lo, a, lo, hi - lo);
+            }
+        }
+    }
+
+    private void grow() {
+        int c = score.length * 2;
+        score = Arrays.copyOf(score, c);
+        at = Arrays.copyOf(at, c);
+        player = Arrays.copyOf(player, c);
+        prevOfPlayer = Arrays.copyOf(prevOfPlayer, c);
+        byScore = Arrays.copyOf(byScore, c);
+        byTime = Arrays.copyOf(byTime, c);
+    }
+
+    private void growPlayers() {
+        int c = names.length * 2;
+        names = Arrays.copyOf(names, c);
+        best = Arrays.copyOf(best, c);
+        latest = Arrays.copyOf(latest, c);
+    }
+}
@@ -0,0 +1,321 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of finished games plus an in-memory top-K table.
+ * The log is scanned once at open in 1 MB positional reads; after that
+ * an append is one write of one record, and top(n) copies n entries out of
+ * the table, whatever the size of the history.
+ *
+ * Opened with openIndexed, it also keeps a ScoreIndex of every record for
+ * the windowed and per-player scoreboard queries; that costs about 24
+ * bytes per game; ScoreTool compact trims a log that has grown too big.
+ *
+ * The table and the log have separate locks, so a reader of top(n) never
+ * waits behind a write that is stuck on the disk.
+ *
+ * File layout: an 8-byte header ("FRSC", version) followed by records of
+ *   int payloadLength | int crc32(payload) | int score | long epochMillis | short nameLength | UTF-8 name
+ * all big-endian. A torn or corrupt record ends the log: open() truncates
+ * the tail there so later appends stay aligned. The scan reads rather than
+ * maps: Windows refuses to truncate, replace or delete a file while a
+ * mapping of it is live, and a MappedByteBuffer lives until it is collected.
+ */
+final class ScoreStore implements Closeable {
+    static final int TOP_CAPACITY = 256;
+
+    private static final int MAGIC = 0x46525343;          // "FRSC"
+    private static final short VERSION = 1;
+    private static final int HEADER = 8;
+    private static final int REC_HEAD = 8;                // payload length + crc
+    private static final int FIXED_PAYLOAD = 4 + 8 + 2;   // score + time + name length
+    private static final int MAX_NAME = 1024;
+    private static final int READ_WINDOW = 1 << 20;
+
+    // One finished game
+    static final class Entry {
+        final String player;
+        final int score;
+        final long at;   // epoch millis
+        Entry(String player, int score, long at) { this.player = player; this.score = score; this.at = at; }
+    }
+
+    // Streaming view of one record; name bytes are only valid during the call
+    interface Sink {
+        void record(byte[] name, int nameLen, int score, long at) throws IOException;
+    }
+
+    private final Path path;
+    private final FileChannel out;
+    private ByteBuffer buf = ByteBuffer.allocate(4096);
+    private final CRC32 crc = new CRC32();
+    private final TopK top = new TopK(TOP_CAPACITY);
+    private final ScoreIndex index;   // null unless opened indexed; guarded by top
+    private long records;             // guarded by top
+    private int generation = 0;       // guarded by top; bumped when the table is emptied
+
+    // One scoreboard query: record ids in board order
+    static final class Board {
+        final int[] ids;
+        final int generation;
+        Board(int[] ids, int generation) { this.ids = ids; this.generation = generation; }
+        int size() { return ids.length; }
+    }
+
+    private ScoreStore(Path path, FileChannel out, boolean indexed) {
+        this.path = path;
+        this.out = out;
+        this.index = indexed ? new ScoreIndex() : null;
+    }
+
+    // Opens (creating if needed) and rebuilds the top-K table from the log
+    static ScoreStore open(Path path) throws IOException { return open(path, false); }
+
+    // Same, plus the player and time indexes behind board()
+    static ScoreStore openIndexed(Path path) throws IOException { return open(path, true); }
+
+    private static ScoreStore open(Path path, boolean indexed) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ScoreStore store = new ScoreStore(path, ch, indexed);
+            store.load();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private void load() throws IOException {
+        long size = out.size();
+        if (size < HEADER) {
+            // New (or torn before the header was complete): start over
+            out.truncate(0);
+            ByteBuffer h = ByteBuffer.allocate(HEADER).putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+            h.flip();
+            out.position(0);
+            while (h.hasRemaining()) out.write(h);
+            return;
+        }
+        ByteBuffer h = ByteBuffer.allocate(HEADER);
+        while (h.hasRemaining() && out.read(h, h.position()) > 0) { }
+        h.flip();
+        if (h.getInt() != MAGIC || h.getShort() != VERSION)
+            throw new IOException(path + " is not a score log");
+
+        if (index != null) index.beginBulk();
+        long end = scan(size, (nm, n, score, at) -> {
+            records++;
+            if (index != null) {
+                String name = new String(nm, 0, n, StandardCharsets.UTF_8);
+                index.add(name, score, at);
+                if (top.accepts(score)) top.offer(new Entry(name, score, at));
+            } else if (top.accepts(score)) {
+                // Names are only decoded for rows that make the table
+                top.offer(new Entry(new String(nm, 0, n, StandardCharsets.UTF_8), score, at));
+            }
+        });
+        if (index != null) index.endBulk();
+        if (end < size) {
+            System.err.println("scores: dropping " + (size - end) + " unreadable bytes at the end of " + path);
+            out.truncate(end);
+        }
+        out.position(end);
+    }
+
+    // Walks the records a window at a time; returns the end of the last good record
+    private long scan(long size, Sink sink) throws IOException {
+        long pos = HEADER;
+        byte[] name = new byte[MAX_NAME];
+        ByteBuffer win = ByteBuffer.allocate((int) Math.min(READ_WINDOW, Math.max(size - HEADER, REC_HEAD)));
+        while (pos < size) {
+            win.clear().limit((int) Math.min(win.capacity(), size - pos));
+            while (win.hasRemaining() && out.read(win, pos + win.position()) > 0) { }
+            win.flip();
+            int base = 0;
+            while (win.limit() - base >= REC_HEAD) {
+                int len = win.getInt(base);
+                if (len < FIXED_PAYLOAD || len > FIXED_PAYLOAD + MAX_NAME) return pos + base;
+                if (win.limit() - base - REC_HEAD < len) break;   // straddles the window: reread from here
+
+                int p = base + REC_HEAD;
+                crc.reset();
+                crc.update(win.array(), p, len);
+                if ((int) crc.getValue() != win.getInt(base + 4)) return pos + base;
+
+                int score = win.getInt(p);
+                long at = win.getLong(p + 4);
+                int nameLen = win.getShort(p + 12) & 0xFFFF;
+                if (FIXED_PAYLOAD + nameLen != len) return pos + base;
+                win.get(p + FIXED_PAYLOAD, name, 0, nameLen);
+                sink.record(name, nameLen, score, at);
+                base += REC_HEAD + len;
+            }
+            if (base == 0) return pos;   // a record longer than what is left: torn tail
+            pos += base;
+        }
+        return pos;
+    }
+
+    // Log and table in one go (import, tools)
+    void append(String player, int score, long at) throws IOException {
+        appendAll(java.util.Collections.singletonList(new Entry(player, score, at)));
+    }
+
+    void appendAll(List<Entry> batch) throws IOException {
+        write(batch);
+        for (Entry e : batch) remember(e);
+    }
+
+    // Replays every record in log order, in constant memory
+    synchronized void forEach(Sink sink) throws IOException {
+        scan(out.position(), sink);
+    }
+
+    // Appends a batch to the log as one write; a failed batch is cut back off
+    // so the next one starts on a record boundary
+    synchronized void write(List<Entry> batch) throws IOException {
+        buf.clear();
+        for (Entry e : batch) encode(e);
+        buf.flip();
+        long start = out.position();
+        try {
+            while (buf.hasRemaining()) out.write(buf);
+        } catch (IOException e) {
+            try { out.truncate(start); out.position(start); }
+            catch (IOException suppressed) { e.addSuppressed(suppressed); }
+            throw e;
+        }
+    }
+
+    private void encode(Entry e) {
+        byte[] nm = e.player.getBytes(StandardCharsets.UTF_8);
+        int nameLen = nm.length;
+        if (nameLen > MAX_NAME) {
+            // Cut before the character that would straddle the limit, not inside it
+            nameLen = MAX_NAME;
+            while (nameLen > 0 && (nm[nameLen] & 0xC0) == 0x80) nameLen--;
+        }
+        int len = FIXED_PAYLOAD + nameLen;
+        if (buf.remaining() < REC_HEAD + len) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + REC_HEAD + len));
+            buf.flip();
+            buf = bigger.put(buf);
+        }
+        int at = buf.position();
+        buf.putInt(len).putInt(0).putInt(e.score).putLong(e.at).putShort((short) nameLen).put(nm, 0, nameLen);
+        crc.reset();
+        crc.update(buf.array(), at + REC_HEAD, len);
+        buf.putInt(at + 4, (int) crc.getValue());
+    }
+
+    // Adds a game to the in-memory table only
+    void remember(Entry e) {
+        synchronized (top) {
+            records++;
+            top.offer(e);
+            if (index != null) index.add(e.player, e.score, e.at);
+        }
+    }
+
+    // Best n games, highest first; ties keep insertion order
+    List<Entry> top(int n) {
+        synchronized (top) { return top.first(n); }
+    }
+
+    /**
+     * Scoreboard query over the index: games at or after since (Long.MIN_VALUE
+     * for all time), only one player's if player is non-null, or only each
+     * player's best if perPlayer. Needs openIndexed.
+     */
+    Board board(long since, String player, boolean perPlayer, int limit) {
+        synchronized (top) {
+            int[] ids;
+            if (player != null) ids = index.player(player, since, limit);
+            else if (perPlayer) ids = index.bestPerPlayer(since, limit);
+            else ids = index.top(since, limit);
+            return new Board(ids, generation);
+        }
+    }
+
+    // Rows [from, to) of a board; empty once the table has been cleared under it
+    List<Entry> page(Board b, int from, int to) {
+        synchronized (top) {
+            if (b.generation != generation) return java.util.Collections.emptyList();
+            List<Entry> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int id = b.ids[i];
+                rows.add(new Entry(index.name(id), index.score(id), index.at(id)));
+            }
+            return rows;
+        }
+    }
+
+    long records() {
+        synchronized (top) { return records; }
+    }
+
+    // Empties the in-memory table only
+    void forget() {
+        synchronized (top) {
+            top.clear();
+            records = 0;
+            generation++;
+            if (index != null) index.clear();
+        }
+    }
+
+    // Cuts the log back to its header
+    synchronized void truncate() throws IOException {
+        out.truncate(HEADER);
+        out.position(HEADER);
+    }
+
+    void clear() throws IOException {
+        truncate();
+        forget();
+    }
+
+    // Forces appended records to the device
+    synchronized void sync() throws IOException { out.force(false); }
+
+    @Override public synchronized void close() throws IOException { out.close(); }
+
+    // Bounded table of the best entries, kept sorted (highest first)
+    private static final class TopK {
+        private final Entry[] e;
+        private int size;
+
+        TopK(int capacity) { e = new Entry[capacity]; }
+
+        // Same tie rule as a stable sort: an equal score lands after existing ones
+        boolean accepts(int score) { return size < e.length || score > e[size - 1].score; }
+
+        void offer(Entry x) {
+            if (!accepts(x.score)) return;
+            int i = (size < e.length) ? size++ : size - 1;
+            while (i > 0 && e[i - 1].score < x.score) { e[i] = e[i - 1]; i--; }
+            e[i] = x;
+        }
+
+        List<Entry> first(int n) {
+            int k = Math.min(n, size);
+            List<Entry> out = new ArrayList<>(k);
+            for (int i = 0; i < k; i++) out.add(e[i]);
+            return out;
+        }
+
+        void clear() {
+            java.util.Arrays.fill(e, null);
+            size = 0;
+        }
+    }
+}
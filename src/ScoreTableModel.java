@@ -0,0 +1,59 @@
+import java.util.Collections;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Read-only scoreboard model over a ScoreStore.Board. Only the row ids
+ * are held; entries are fetched a page at a time as JTable asks for the
+ * visible cells, and the "When" text is formatted once per fetched row.
+ * A new query is one set() and one table event, not one event per row.
+ */
+final class ScoreTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    interface Pager {
+        // rows [from, to) of the board, or empty if it went stale
+        List<ScoreStore.Entry> page(ScoreStore.Board board, int from, int to);
+    }
+
+    private static final int PAGE = 64;
+    private static final String[] COLUMNS = { "Player", "Score", "When" };
+    private static final ScoreStore.Board EMPTY = new ScoreStore.Board(new int[0], -1);
+
+    private final Pager pager;
+    private ScoreStore.Board board = EMPTY;
+    private int pageStart = -PAGE;   // no page loaded
+    private List<ScoreStore.Entry> page = Collections.emptyList();
+    private final String[] when = new String[PAGE];
+
+    ScoreTableModel(Pager pager) { this.pager = pager; }
+
+    void set(ScoreStore.Board b) {
+        board = b == null ? EMPTY : b;
+        pageStart = -PAGE;
+        fireTableDataChanged();
+    }
+
+    @Override public int getRowCount()              { return board.size(); }
+    @Override public int getColumnCount()           { return COLUMNS.length; }
+    @Override public String getColumnName(int c)    { return COLUMNS[c]; }
+    @Override public Class<?> getColumnClass(int c) { return c == 1 ? Integer.class : String.class; }
+
+    @Override public Object getValueAt(int row, int col) {
+        if (row < pageStart || row >= pageStart + PAGE) {
+            pageStart = row - row % PAGE;
+            page = pager.page(board, pageStart, Math.min(pageStart + PAGE, board.size()));
+            java.util.Arrays.fill(when, null);
+        }
+        int i = row - pageStart;
+        if (i >= page.size()) return null;
+        ScoreStore.Entry e = page.get(i);
+        switch (col) {
+            case 0:  return e.player;
+            case 1:  return e.score;
+            default:
+                if (when[i] == null) when[i] = ScoreCsv.format(e.at);
+                return when[i];
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline maintenance for the score history: CSV import and export, and
+ * compaction down to each player's best N games, the global top table and
+ * every game inside a rolling window. All three stream the data; import
+ * and export hold one batch of rows, compaction additionally one small
+ * heap per distinct player, so memory does not grow with the row count.
+ *
+ * Usage: java ScoreTool import  scores.csv scores.dat
+ *        java ScoreTool export  scores.dat scores.csv
+ *        java ScoreTool compact scores.dat [perPlayer=10] [windowDays=30]
+ */
+public class ScoreTool {
+    static final int DEFAULT_PER_PLAYER = 10;
+    static final int DEFAULT_WINDOW_DAYS = 30;
+    private static final int BATCH = 1024;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    public static void main(String[] args) throws IOException {
+        String cmd = args.length > 0 ? args[0] : "";
+        if (cmd.equals("import") && args.length == 3) {
+            long[] n = importCsv(Paths.get(args[1]), Paths.get(args[2]));
+            System.out.printf("imported %d rows, skipped %d%n", n[0], n[1]);
+        } else if (cmd.equals("export") && args.length == 3) {
+            System.out.printf("exported %d rows%n", exportCsv(Paths.get(args[1]), Paths.get(args[2])));
+        } else if (cmd.equals("compact") && args.length >= 2 && args.length <= 4) {
+            int perPlayer = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PER_PLAYER;
+            int days      = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_WINDOW_DAYS;
+            long[] n = compact(Paths.get(args[1]), perPlayer, days * DAY_MS, System.currentTimeMillis());
+            System.out.printf("kept %d of %d rows%n", n[1], n[0]);
+        } else {
+            System.err.println("usage: ScoreTool import <csv> <dat> | export <dat> <csv> | compact <dat> [perPlayer] [windowDays]");
+            System.exit(2);
+        }
+    }
+
+    // Appends every readable row of csv to the log; returns {rows, skipped}
+    static long[] importCsv(Path csv, Path dat) throws IOException {
+        long rows = 0;
+        List<ScoreStore.Entry> batch = new ArrayList<>(BATCH);
+        try (ScoreCsv.Reader in = new ScoreCsv.Reader(new InputStreamReader(Files.newInputStream(csv), StandardCharsets.UTF_8));
+             ScoreStore store = ScoreStore.open(dat)) {
+            while (in.next()) {
+                batch.add(new ScoreStore.Entry(in.player(), in.score(), in.at()));
+                rows++;
+                if (batch.size() == BATCH) { store.appendAll(batch); batch.clear(); }
+            }
+            if (!batch.isEmpty()) store.appendAll(batch);
+            store.sync();
+            return new long[] { rows, in.skipped() };
+        }
+    }
+
+    // Writes the log out in log order; returns the row count
+    static long exportCsv(Path dat, Path csv) throws IOException {
+        long[] rows = { 0 };
+        try (ScoreStore store = ScoreStore.open(dat);
+             Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(csv), StandardCharsets.UTF_8), 1 << 16)) {
+            store.forEach((nm, n, score, at) -> {
+                ScoreCsv.write(out, new String(nm, 0, n, StandardCharsets.UTF_8), score, at);
+                rows[0]++;
+            });
+        }
+        return rows[0];
+    }
+
+    /**
+     * Rewrites the log keeping a game if it is among its player's best
+     * perPlayer, among the best ScoreStore.TOP_CAPACITY overall (so the
+     * scoreboard is unchanged), or newer than now - windowMs. Ties at a cut
+     * are all kept. Two passes: the first finds the cut scores, the second
+     * copies survivors to a temp file that then replaces the log.
+     * Returns {rowsBefore, rowsKept}.
+     */
+    static long[] compact(Path dat, int perPlayer, long windowMs, long now) throws IOException {
+        long since = now - windowMs;
+        Map<String, int[]> best = new HashMap<>();
+        int[] global = newHeap(ScoreStore.TOP_CAPACITY);
+        long[] n = { 0, 0 };
+        Path tmp = dat.resolveSibling(dat.getFileName() + ".compact");
+        Files.deleteIfExists(tmp);
+
+        try (ScoreStore store = ScoreStore.open(dat)) {
+            store.forEach((nm, len, score, at) -> {
+                n[0]++;
+                offer(global, score);
+                if (perPlayer > 0)
+                    offer(best.computeIfAbsent(new String(nm, 0, len, StandardCharsets.UTF_8), k -> newHeap(perPlayer)), score);
+            });
+            int globalCut = cut(global);
+
+            List<ScoreStore.Entry> batch = new ArrayList<>(BATCH);
+            try (ScoreStore kept = ScoreStore.open(tmp)) {
+                store.forEach((nm, len, score, at) -> {
+                    String player = null;
+                    boolean keep = at >= since || score >= globalCut;
+                    if (!keep && perPlayer > 0) {
+                        player = new String(nm, 0, len, StandardCharsets.UTF_8);
+                        keep = score >= cut(best.get(player));
+                    }
+                    if (!keep) return;
+                    if (player == null) player = new String(nm, 0, len, StandardCharsets.UTF_8);
+                    batch.add(new ScoreStore.Entry(player, score, at));
+                    n[1]++;
+                    if (batch.size() == BATCH) { kept.write(batch); batch.clear(); }
+                });
+                if (!batch.isEmpty()) kept.write(batch);
+                kept.sync();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, dat, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return n;
+    }
+
+    // Min-heap of the best scores seen: h[0] is the size, h[1..] the heap
+    private static int[] newHeap(int capacity) { return new int[capacity + 1]; }
+
+    // Lowest score still kept; everything passes until the heap is full
+    private static int cut(int[] h) { return h[0] < h.length - 1 ? Integer.MIN_VALUE : h[1]; }
+
+    private static void offer(int[] h, int v) {
+        int n = h[0];
+        if (n < h.length - 1) {
+            int i = h[0] = n + 1;
+            while (i > 1 && h[i >> 1] > v) { h[i] = h[i >> 1]; i >>= 1; }
+            h[i] = v;
+            return;
+        }
+        if (v <= h[1]) return;
+        int i = 1;
+        while (true) {
+            int c = i << 1;
+            if (c > n) break;
+            if (c < n && h[c + 1] < h[c]) c++;
+            if (h[c] >= v) break;
+            h[i] = h[c];
+            i = c;
+        }
+        h[i] = v;
+    }
+}
@@ -0,0 +1,212 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer for the score log. submit() only touches memory: the
+ * game goes into the store's top-K table straight away and onto a bounded
+ * queue. The "frogger-score-writer" thread drains whatever has piled up,
+ * writes it as one group, and then syncs according to the policy:
+ *
+ *   ALWAYS    every group is forced to the device before the next is taken
+ *   INTERVAL  forced at most every intervalMs while there are unsynced writes
+ *   NEVER     left to the OS (survives a process crash, not a power cut)
+ *
+ * Failures are reported on System.err; a failed group is cut back off the
+ * log and retried, so the log never holds half a record. close() drains
+ * the queue and forces the log (except under NEVER); App runs it from a
+ * shutdown hook.
+ */
+final class ScoreWriter implements Closeable {
+
+    enum Fsync { ALWAYS, INTERVAL, NEVER }
+
+    static final int QUEUE_CAPACITY = 1024;
+    private static final int MAX_GROUP = 256;
+    private static final long RETRY_MS = 1000;
+    private static final long CLOSE_WAIT_MS = 5000;
+
+    // Queue items: a game to append, or a control marker
+    private static final int APPEND = 0, CLEAR = 1, FLUSH = 2, STOP = 3;
+
+    private static final class Op {
+        final int kind;
+        final ScoreStore.Entry entry;
+        final CountDownLatch done;
+        Op(int kind, ScoreStore.Entry entry, CountDownLatch done) { this.kind = kind; this.entry = entry; this.done = done; }
+    }
+
+    private final ScoreStore store;
+    private final Fsync fsync;
+    private final long intervalMs;
+    private final ArrayBlockingQueue<Op> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread thread;
+    private volatile boolean closed = false;
+
+    // Writer-thread state
+    private final List<ScoreStore.Entry> group = new ArrayList<>();
+    private boolean dirty = false;
+    private long lastSync = System.nanoTime();
+    private boolean failing = false;
+
+    ScoreWriter(ScoreStore store, Fsync fsync, long intervalMs) {
+        this.store = store;
+        this.fsync = fsync;
+        this.intervalMs = Math.max(1, intervalMs);
+        thread = new Thread(this::run, "frogger-score-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // -Dfrogger.fsync=always|never|<ms> (default 1000 ms)
+    static ScoreWriter fromProperties(ScoreStore store) {
+        String p = System.getProperty("frogger.fsync", "1000").trim();
+        if (p.equalsIgnoreCase("always")) return new ScoreWriter(store, Fsync.ALWAYS, 0);
+        if (p.equalsIgnoreCase("never")) return new ScoreWriter(store, Fsync.NEVER, 0);
+        long ms;
+        try { ms = Long.parseLong(p); }
+        catch (NumberFormatException e) {
+            System.err.println("scores: bad frogger.fsync '" + p + "', using 1000 ms");
+            ms = 1000;
+        }
+        return new ScoreWriter(store, Fsync.INTERVAL, ms);
+    }
+
+    // Records a finished game; never waits on the disk
+    synchronized void submit(String player, int score, long at) {
+        ScoreStore.Entry e = new ScoreStore.Entry(player, score, at);
+        if (closed || !queue.offer(new Op(APPEND, e, null))) {
+            System.err.println("scores: writer " + (closed ? "closed" : "backed up") + ", not saving " + player + " " + score);
+            return;
+        }
+        store.remember(e);
+    }
+
+    // Empties the table now and the log in queue order
+    synchronized void clear() {
+        if (closed || !queue.offer(new Op(CLEAR, null, null))) {
+            System.err.println("scores: writer " + (closed ? "closed" : "backed up") + ", not clearing the log");
+            return;
+        }
+        store.forget();
+    }
+
+    // Blocks until everything submitted so far is written and forced
+    boolean flush(long timeoutMs) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        if (closed || !queue.offer(new Op(FLUSH, null, done), timeoutMs, TimeUnit.MILLISECONDS)) return false;
+        return done.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Drains the queue, forces the log and closes the store
+    @Override public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            if (queue.offer(new Op(STOP, null, done), CLOSE_WAIT_MS, TimeUnit.MILLISECONDS)
+                    && done.await(CLOSE_WAIT_MS, TimeUnit.MILLISECONDS)) return;
+            System.err.println("scores: writer did not drain in time, " + queue.size() + " queued games lost");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Op> ops = new ArrayList<>(MAX_GROUP);
+        while (true) {
+            Op first;
+            try {
+                first = dirty && fsync == Fsync.INTERVAL
+                        ? queue.poll(Math.max(1, intervalMs - elapsedMs()), TimeUnit.MILLISECONDS)
+                        : queue.take();
+            } catch (InterruptedException e) {
+                continue;   // only close() ends the writer
+            }
+            if (first != null) {
+                ops.add(first);
+                queue.drainTo(ops, MAX_GROUP - 1);
+                for (Op op : ops) {
+                    if (!apply(op)) return;
+                }
+                ops.clear();
+            }
+            commit();
+            if (dirty && fsync == Fsync.INTERVAL && elapsedMs() >= intervalMs) sync();
+        }
+    }
+
+    // Appends gather into the group; markers first commit what came before them
+    private boolean apply(Op op) {
+        switch (op.kind) {
+            case APPEND:
+                group.add(op.entry);
+                return true;
+            case CLEAR:
+                commit();
+                try { store.truncate(); dirty = true; }
+                catch (IOException e) { System.err.println("scores: clearing the log failed: " + e.getMessage()); }
+                if (fsync == Fsync.ALWAYS) sync();
+                return true;
+            case FLUSH:
+                commit();
+                sync();
+                op.done.countDown();
+                return true;
+            default:   // STOP
+                commit();
+                if (!group.isEmpty()) System.err.println("scores: " + group.size() + " games could not be saved");
+                if (fsync != Fsync.NEVER) sync();
+                try { store.close(); }
+                catch (IOException e) { System.err.println("scores: closing the log failed: " + e.getMessage()); }
+                op.done.countDown();
+                return false;
+        }
+    }
+
+    // Writes the pending group; on failure it stays pending and is retried
+    private void commit() {
+        while (!group.isEmpty()) {
+            try {
+                Flight.ScoreWrite ev = Flight.ON ? new Flight.ScoreWrite() : null;
+                if (ev != null) { ev.games = group.size(); ev.begin(); }
+                store.write(group);
+                if (ev != null) ev.commit();
+                group.clear();
+                dirty = true;
+                if (failing) System.err.println("scores: writing recovered");
+                failing = false;
+                if (fsync == Fsync.ALWAYS) sync();
+                return;
+            } catch (IOException e) {
+                if (!failing) System.err.println("scores: writing " + group.size() + " games failed, retrying: " + e.getMessage());
+                failing = true;
+                if (closed) return;
+                try { Thread.sleep(RETRY_MS); }
+                catch (InterruptedException ie) { return; }
+            }
+        }
+    }
+
+    private void sync() {
+        if (!dirty) return;
+        try {
+            Flight.ScoreWrite ev = Flight.ON ? new Flight.ScoreWrite() : null;
+            if (ev != null) { ev.synced = true; ev.begin(); }
+            store.sync();
+            if (ev != null) ev.commit();
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("scores: fsync failed: " + e.getMessage());
+        }
+        lastSync = System.nanoTime();
+    }
+
+    private long elapsedMs() { return (System.nanoTime() - lastSync) / 1_000_000L; }
+}
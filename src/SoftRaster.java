@@ -0,0 +1,246 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Software rasterizer for the playfield: the level background, actors, puffs
+ * and the frog are written straight into the int[] behind an RGB image, which
+ * the view then puts on screen with one drawImage. The HUD text and overlays
+ * stay with Java2D.
+ *
+ * The board is cut into bands, one per tile row, and the bands are filled in
+ * parallel on a small ForkJoinPool. Each band copies its background rows,
+ * then runs the whole draw list clipped to itself, so bands never touch the
+ * same pixel and need no locking. A band that held nothing last frame and
+ * holds nothing now still shows the background and is left alone. The draw
+ * list is built once per frame on the painting thread, with the same rounding
+ * as the Java2D path; it and the band tasks are reused from frame to frame.
+ *
+ * Sprites are blended from the atlas pixels (source over, 8-bit alpha); the
+ * shapes drawn when art is missing are plain fills with a rectangle outline.
+ *
+ * Config (system properties):
+ *   -Dfrogger.raster=software       use this instead of Java2D for the playfield
+ *   -Dfrogger.raster.threads=N      band workers (min(4, cores)); 1 fills on the painting thread
+ */
+final class SoftRaster {
+    private static final int W = GameSimulation.WIDTH, H = GameSimulation.HEIGHT, TILE = GameSimulation.TILE;
+
+    static boolean requested() { return "software".equalsIgnoreCase(System.getProperty("frogger.raster")); }
+
+    static int threadsWanted() {
+        return Math.max(1, Integer.getInteger("frogger.raster.threads",
+                Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    // Draw list ops
+    private static final byte SPRITE = 0, RECT = 1, OVAL = 2;
+
+    final BufferedImage image = new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+    private final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+    // Background and atlas pixels, pulled out once per background / atlas
+    private LevelBackground bgFor;
+    private final int[] bg = new int[W * H];
+    private SpriteAtlas atlasFor;
+    private int[] sheet;
+    private int sheetW;
+
+    // This frame's draw list: op, box, and the atlas cell (SPRITE) or ARGB color;
+    // outline is an ARGB color, 0 for none
+    private int count;
+    private byte[] op = new byte[64];
+    private int[] x = new int[64], y = new int[64], w = new int[64], h = new int[64], arg = new int[64], outline = new int[64];
+
+    private final ForkJoinPool pool;
+    private final Band[] bands;
+    private final RecursiveAction all;
+
+    SoftRaster(int threads) {
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        // One band per tile row: workers take rows as they free up, and a row is
+        // small enough that most of the board is bare from frame to frame
+        bands = new Band[GameSimulation.ROWS];
+        for (int b = 0; b < bands.length; b++) bands[b] = new Band(b * TILE, (b + 1) * TILE);
+        all = new RecursiveAction() {
+            @Override protected void compute() { invokeAll(bands); }
+        };
+    }
+
+    void close() { if (pool != null) pool.shutdown(); }
+
+    // Fills the image with f's playfield at interpolation alpha; bands outside g's clip keep their old pixels
+    void render(Graphics2D g, Frame f, double alpha, LevelBackground background, SpriteAtlas atlas) {
+        if (bgFor != background) {
+            background.image.getRGB(0, 0, W, H, bg, 0, W);
+            bgFor = background;
+            for (Band b : bands) b.bare = false;
+        }
+        if (atlasFor != atlas) {
+            sheet = atlas.pixels();
+            sheetW = atlas.sheetWidth();
+            atlasFor = atlas;
+        }
+        build(f, alpha, atlas);
+
+        for (Band b : bands) b.skip = !g.hitClip(0, b.y0, W, b.y1 - b.y0);
+        if (pool == null) {
+            for (Band b : bands) b.fill();
+            return;
+        }
+        for (Band b : bands) b.reinitialize();
+        all.reinitialize();
+        try {
+            pool.invoke(all);
+        } catch (RejectedExecutionException e) {
+            // close() got in first (a last repaint on the way out): the painting thread does it alone
+            for (Band b : bands) b.fill();
+        }
+    }
+
+    // Same order and rounding as GamePanel.drawActors / drawPuffs / drawFrog
+    private void build(Frame f, double alpha, SpriteAtlas atlas) {
+        count = 0;
+        for (int i = 0; i < f.count; i++) {
+            int ax = (int)Math.round(f.fromX[i] + (f.x[i] - f.fromX[i]) * alpha);
+            int ay = (int)Math.round(f.fromY[i] + (f.y[i] - f.fromY[i]) * alpha);
+            int id = SpriteAtlas.actor(f.kind[i], f.right[i]);
+            if (atlas.has(id)) { sprite(atlas, id, ax, ay); continue; }
+            switch (f.kind[i]) {
+                case Frame.CAR_RED -> add(RECT, ax, ay, f.w[i], f.h[i], GamePanel.CAR_RED.getRGB(), 0xff000000);
+                case Frame.CAR     -> add(RECT, ax, ay, f.w[i], f.h[i], GamePanel.CAR.getRGB(), 0xff000000);
+                case Frame.TRUCK   -> add(RECT, ax, ay, f.w[i], f.h[i], GamePanel.TRUCK.getRGB(), 0xff000000);
+                case Frame.LOG     -> add(RECT, ax, ay, f.w[i], f.h[i], GamePanel.LOG.getRGB(), 0xff000000);
+                case Frame.SNAKE   -> add(RECT, ax, ay, f.w[i], f.h[i], GamePanel.SNAKE.getRGB(), 0xff000000);
+                case Frame.BIRD    -> add(OVAL, ax, ay, f.w[i], f.h[i], GamePanel.BIRD.getRGB(), 0);
+                case Frame.SHOT    -> add(OVAL, ax, ay, f.w[i], f.h[i], GamePanel.SHOT.getRGB(), 0);
+            }
+        }
+        for (int i = 0; i < f.puffCount; i++) {
+            double r = f.puffR[i];
+            int a = Math.max(0, Math.min(255, f.puffLife[i]*12));
+            int d = (int)(r*2);
+            add(OVAL, (int)(f.puffX[i]-r), (int)(f.puffY[i]-r), d, d, a << 24 | 0xffffc8, 0);
+        }
+        int id = SpriteAtlas.frog(f.frogFacing);
+        if (atlas.has(id)) sprite(atlas, id, f.frogX, f.frogY);
+        else add(OVAL, f.frogX, f.frogY, f.frogW, f.frogH, GamePanel.FROG.getRGB(), 0);
+    }
+
+    private void sprite(SpriteAtlas atlas, int id, int sx, int sy) {
+        add(SPRITE, sx, sy, atlas.cellW(id), atlas.cellH(id), atlas.cellY(id) * sheetW + atlas.cellX(id), 0);
+    }
+
+    private void add(byte o, int ax, int ay, int aw, int ah, int a, int line) {
+        if (count == op.length) {
+            int n = count * 2;
+            op = java.util.Arrays.copyOf(op, n);
+            x = java.util.Arrays.copyOf(x, n); y = java.util.Arrays.copyOf(y, n);
+            w = java.util.Arrays.copyOf(w, n); h = java.util.Arrays.copyOf(h, n);
+            arg = java.util.Arrays.copyOf(arg, n); outline = java.util.Arrays.copyOf(outline, n);
+        }
+        op[count] = o; x[count] = ax; y[count] = ay; w[count] = aw; h[count] = ah;
+        arg[count] = a; outline[count] = line;
+        count++;
+    }
+
+    // Rows y0..y1 of the board
+    private final class Band extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int y0, y1;
+        boolean skip;
+        boolean bare;       // pixels are the background's: nothing was drawn on it
+
+        Band(int y0, int y1) { this.y0 = y0; this.y1 = y1; }
+
+        @Override protected void compute() { fill(); }
+
+        void fill() {
+            if (skip) return;
+            int first = 0;
+            while (first < count && !overlaps(first)) first++;
+            if (first == count && bare) return;
+            System.arraycopy(bg, y0 * W, pixels, y0 * W, (y1 - y0) * W);
+            bare = first == count;
+            for (int i = first; i < count; i++) {
+                if (!overlaps(i)) continue;
+                switch (op[i]) {
+                    case SPRITE -> blit(arg[i], x[i], y[i], w[i], h[i]);
+                    case RECT -> {
+                        fillRect(x[i], y[i], w[i], h[i], arg[i]);
+                        if (outline[i] != 0) {
+                            // drawRect covers w+1 by h+1
+                            fillRect(x[i], y[i], w[i] + 1, 1, outline[i]);
+                            fillRect(x[i], y[i] + h[i], w[i] + 1, 1, outline[i]);
+                            fillRect(x[i], y[i], 1, h[i] + 1, outline[i]);
+                            fillRect(x[i] + w[i], y[i], 1, h[i] + 1, outline[i]);
+                        }
+                    }
+                    case OVAL -> fillOval(x[i], y[i], w[i], h[i], arg[i]);
+                }
+            }
+        }
+
+        // Outlines reach one pixel past the box
+        private boolean overlaps(int i) { return y[i] < y1 && y[i] + h[i] + 1 > y0; }
+
+        // Atlas cell starting at sheet offset from, drawn unscaled at (dx, dy)
+        private void blit(int from, int dx, int dy, int cw, int ch) {
+            int r0 = Math.max(dy, y0), r1 = Math.min(dy + ch, y1);
+            int c0 = Math.max(dx, 0), c1 = Math.min(dx + cw, W);
+            for (int py = r0; py < r1; py++) {
+                int s = from + (py - dy) * sheetW + (c0 - dx);
+                int d = py * W + c0;
+                for (int px = c0; px < c1; px++, s++, d++) {
+                    int src = sheet[s];
+                    int a = src >>> 24;
+                    if (a == 255) pixels[d] = src;
+                    else if (a != 0) pixels[d] = blend(src, pixels[d], a);
+                }
+            }
+        }
+
+        private void fillRect(int rx, int ry, int rw, int rh, int argb) {
+            int r0 = Math.max(ry, y0), r1 = Math.min(ry + rh, y1);
+            int c0 = Math.max(rx, 0), c1 = Math.min(rx + rw, W);
+            for (int py = r0; py < r1; py++) span(py, c0, c1, argb);
+        }
+
+        // Pixels whose centers fall inside the ellipse in the box, like fillOval without antialiasing
+        private void fillOval(int ox, int oy, int ow, int oh, int argb) {
+            if (ow <= 0 || oh <= 0) return;
+            double rx = ow / 2.0, ry = oh / 2.0, cx = ox + rx, cy = oy + ry;
+            int r0 = Math.max(oy, y0), r1 = Math.min(oy + oh, y1);
+            for (int py = r0; py < r1; py++) {
+                double t = (py + 0.5 - cy) / ry;
+                double half = rx * Math.sqrt(Math.max(0, 1 - t * t));
+                int c0 = Math.max(0, (int)Math.ceil(cx - half - 0.5));
+                int c1 = Math.min(W, (int)Math.floor(cx + half - 0.5) + 1);
+                span(py, c0, c1, argb);
+            }
+        }
+
+        private void span(int py, int c0, int c1, int argb) {
+            int a = argb >>> 24;
+            if (a == 0 || c0 >= c1) return;
+            int d = py * W;
+            if (a == 255) { java.util.Arrays.fill(pixels, d + c0, d + c1, argb); return; }
+            for (int px = d + c0; px < d + c1; px++) pixels[px] = blend(argb, pixels[px], a);
+        }
+    }
+
+    // Source over an opaque pixel, each channel rounded
+    private static int blend(int src, int dst, int a) {
+        int ia = 255 - a;
+        int r = div255(((src >> 16) & 0xff) * a + ((dst >> 16) & 0xff) * ia);
+        int g = div255(((src >> 8) & 0xff) * a + ((dst >> 8) & 0xff) * ia);
+        int b = div255((src & 0xff) * a + (dst & 0xff) * ia);
+        return 0xff000000 | r << 16 | g << 8 | b;
+    }
+
+    private static int div255(int v) { v += 128; return (v + (v >> 8)) >> 8; }
+}
@@ -0,0 +1,133 @@
+import java.util.Arrays;
+
+/**
+ * Uniform TILE-sized grid over the board, rebuilt from the EntityStore each tick.
+ * Every actor is filed under the cells its box covers; a query only looks at
+ * the cells under the query box, so the cost follows local density instead of
+ * total actor count. Actors past the board edge are clamped into the border
+ * cells, which keeps off-screen spawn checks exact.
+ *
+ * Ids are handed out in insertion order and query results come back sorted,
+ * so "first hit" means the same actor the old list scans picked.
+ */
+final class SpatialGrid {
+    // Layers (bit mask)
+    static final int CARS = 1, TRUCKS = 2, LOGS = 4, BIRDS = 8, SNAKES = 16;
+
+    private static final int CELL = GameSimulation.TILE;
+    private static final int COLS = GameSimulation.COLS;
+    private static final int ROWS = GameSimulation.ROWS;
+
+    // Cell buckets as singly linked lists of nodes
+    private final int[] head = new int[COLS * ROWS];
+    private int[] next = new int[256];
+    private int[] nodeId = new int[256];
+    private int nodes = 0;
+
+    // Items by id (ref is the EntityStore slot)
+    private int[] ref = new int[64];
+    private int[] layer = new int[64];
+    private int[] ix = new int[64], iy = new int[64], iw = new int[64], ih = new int[64];
+    private boolean[] dead = new boolean[64];
+    private int[] seen = new int[64];
+    private int count = 0;
+    private int epoch = 0;
+
+    // Last query result, ascending ids
+    private int[] hits = new int[32];
+    private int hitCount = 0;
+
+    SpatialGrid() { Arrays.fill(head, -1); }
+
+    void clear() {
+        Arrays.fill(head, -1);
+        nodes = 0;
+        count = 0;
+    }
+
+    // Files an actor under every cell its box covers; returns its id
+    int insert(int slot, int layerBit, int x, int y, int w, int h) {
+        if (count == ref.length) growItems();
+        int id = count++;
+        ref[id] = slot; layer[id] = layerBit;
+        ix[id] = x; iy[id] = y; iw[id] = w; ih[id] = h;
+        dead[id] = false;
+        seen[id] = epoch;
+
+        int c0 = col(x), c1 = col(x + w - 1);
+        int r0 = row(y), r1 = row(y + h - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (nodes == next.length) growNodes();
+                int cell = r * COLS + c;
+                nodeId[nodes] = id;
+                next[nodes] = head[cell];
+                head[cell] = nodes++;
+            }
+        }
+        return id;
+    }
+
+    // Drops an actor from later queries (killed mid-tick)
+    void kill(int id) { dead[id] = true; }
+
+    // Collects live actors in the layer mask whose box overlaps the query box
+    int query(int x, int y, int w, int h, int layerMask) {
+        hitCount = 0;
+        if (w <= 0 || h <= 0) return 0;
+        epoch++;
+        int c0 = col(x), c1 = col(x + w - 1);
+        int r0 = row(y), r1 = row(y + h - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int n = head[r * COLS + c]; n != -1; n = next[n]) {
+                    int id = nodeId[n];
+                    if (seen[id] == epoch) continue;
+                    seen[id] = epoch;
+                    if (dead[id] || (layer[id] & layerMask) == 0) continue;
+                    if (!GameSimulation.overlaps(ix[id], iy[id], iw[id], ih[id], x, y, w, h)) continue;
+                    addHit(id);
+                }
+            }
+        }
+        return hitCount;
+    }
+
+    // Lowest-id overlapping actor, or -1
+    int first(int x, int y, int w, int h, int layerMask) {
+        return query(x, y, w, h, layerMask) == 0 ? -1 : hits[0];
+    }
+
+    int hit(int i)       { return hits[i]; }
+    int ref(int id)      { return ref[id]; }
+    int layer(int id)    { return layer[id]; }
+    int y(int id)        { return iy[id]; }
+    int size()           { return count; }
+
+    private static int col(int x) { return Math.max(0, Math.min(COLS - 1, Math.floorDiv(x, CELL))); }
+    private static int row(int y) { return Math.max(0, Math.min(ROWS - 1, Math.floorDiv(y, CELL))); }
+
+    // Sorted insert; results are a handful of ids at most
+    private void addHit(int id) {
+        if (hitCount == hits.length) hits = Arrays.copyOf(hits, hitCount * 2);
+        int i = hitCount++;
+        while (i > 0 && hits[i - 1] > id) { hits[i] = hits[i - 1]; i--; }
+        hits[i] = id;
+    }
+
+    private void growItems() {
+        int n = ref.length * 2;
+        ref = Arrays.copyOf(ref, n);
+        layer = Arrays.copyOf(layer, n);
+        ix = Arrays.copyOf(ix, n); iy = Arrays.copyOf(iy, n);
+        iw = Arrays.copyOf(iw, n); ih = Arrays.copyOf(ih, n);
+        dead = Arrays.copyOf(dead, n);
+        seen = Arrays.copyOf(seen, n);
+    }
+
+    private void growNodes() {
+        int n = next.length * 2;
+        next = Arrays.copyOf(next, n);
+        nodeId = Arrays.copyOf(nodeId, n);
+    }
+}
@@ -0,0 +1,52 @@
+import java.util.Arrays;
+
+/**
+ * When each lane spawns next. Lanes register the tick their next spawn is
+ * due and the spawn pass only pops the ones due now, instead of testing
+ * ticks % cadence on every lane every tick.
+ *
+ * Entries are packed longs (tick above, lane below) in a binary min-heap,
+ * so lanes due on the same tick come out in lane order: the order the old
+ * per-lane loops drew their random numbers in.
+ */
+final class SpawnSchedule {
+    private static final int LANE_BITS = 20;
+    static final int MAX_LANES = 1 << LANE_BITS;
+
+    private long[] heap = new long[64];
+    private int size;
+
+    void clear() { size = 0; }
+
+    int size() { return size; }
+
+    void add(int tick, int lane) {
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        long e = ((long) tick << LANE_BITS) | lane;
+        int i = size++;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (heap[p] <= e) break;
+            heap[i] = heap[p];
+            i = p;
+        }
+        heap[i] = e;
+    }
+
+    // True when some lane is due at or before tick
+    boolean due(int tick) { return size > 0 && (heap[0] >>> LANE_BITS) <= tick; }
+
+    // Removes the earliest entry and returns its lane
+    int pop() {
+        long top = heap[0];
+        long e = heap[--size];
+        int i = 0;
+        for (int c; (c = 2 * i + 1) < size; i = c) {
+            if (c + 1 < size && heap[c + 1] < heap[c]) c++;
+            if (e <= heap[c]) break;
+            heap[i] = heap[c];
+        }
+        heap[i] = e;
+        return (int) (top & (MAX_LANES - 1));
+    }
+}
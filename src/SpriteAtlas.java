@@ -0,0 +1,102 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Every actor and frog sprite packed into one compatible image, already
+ * scaled to its on-board size and flipped for both travel directions.
+ * Drawing a sprite is a 1:1 copy of its cell, so the per-frame scaling,
+ * negative-width flips and HashMap lookups through Assets go away.
+ * Sprites whose PNG is missing have no cell; callers draw their fallback.
+ */
+final class SpriteAtlas {
+    // Actor cells: kind * 2 + (facing right ? 1 : 0); frog cells follow, by Frog.Dir
+    private static final int FROG = (Frame.SHOT + 1) * 2;
+    private static final int CELLS = FROG + Frog.Dir.values().length;
+    private static final int SHEET_W = 512, PAD = 1;
+
+    private final BufferedImage sheet;
+    private final int[] sx = new int[CELLS], sy = new int[CELLS], sw = new int[CELLS], sh = new int[CELLS];
+
+    static int actor(byte kind, boolean right) { return kind * 2 + (right ? 1 : 0); }
+    static int frog(Frog.Dir facing)           { return FROG + facing.ordinal(); }
+
+    SpriteAtlas(GraphicsConfiguration gc) {
+        BufferedImage[] src = new BufferedImage[CELLS];
+        boolean[] flip = new boolean[CELLS];
+        int[] w = new int[CELLS], h = new int[CELLS];
+
+        // Car, bird and snake art faces right; truck art faces left; logs never flip
+        put(src, flip, w, h, Frame.CAR,     Assets.car(),    GameSimulation.CAR_W,   GameSimulation.CAR_H,   false);
+        put(src, flip, w, h, Frame.CAR_RED, Assets.carRed(), GameSimulation.CAR_W,   GameSimulation.CAR_H,   false);
+        put(src, flip, w, h, Frame.TRUCK,   Assets.truck(),  GameSimulation.TRUCK_W, GameSimulation.TRUCK_H, true);
+        put(src, flip, w, h, Frame.BIRD,    Assets.bird(),   GameSimulation.BIRD_W,  GameSimulation.BIRD_H,  false);
+        put(src, flip, w, h, Frame.SNAKE,   Assets.snake(),  GameSimulation.SNAKE_W, GameSimulation.SNAKE_H, false);
+        for (int r = 0; r < 2; r++) {
+            int id = actor(Frame.LOG, r == 1);
+            src[id] = Assets.log(); w[id] = GameSimulation.LOG_W; h[id] = GameSimulation.LOG_H;
+        }
+
+        // Frog: same facing fallbacks the view always used
+        BufferedImage front = Assets.frog(), left = Assets.frogLeft(), right = Assets.frogRight(), rear = Assets.frogRear();
+        for (Frog.Dir d : Frog.Dir.values()) {
+            int id = frog(d);
+            src[id] = switch (d) {
+                case LEFT  -> (left  != null ? left  : front);
+                case RIGHT -> (right != null ? right : front);
+                case UP    -> (front != null ? rear  : front);
+                case DOWN  -> (rear  != null ? front : rear);
+            };
+            w[id] = Frog.SIZE; h[id] = Frog.SIZE;
+        }
+
+        // Shelf packing, row by row
+        int x = 0, y = 0, rowH = 0;
+        for (int id = 0; id < CELLS; id++) {
+            if (src[id] == null) continue;
+            if (x + w[id] > SHEET_W) { x = 0; y += rowH + PAD; rowH = 0; }
+            sx[id] = x; sy[id] = y; sw[id] = w[id]; sh[id] = h[id];
+            x += w[id] + PAD;
+            rowH = Math.max(rowH, h[id]);
+        }
+        int sheetH = Math.max(1, y + rowH);
+
+        sheet = (gc != null)
+                ? gc.createCompatibleImage(SHEET_W, sheetH, Transparency.TRANSLUCENT)
+                : new BufferedImage(SHEET_W, sheetH, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = sheet.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        for (int id = 0; id < CELLS; id++) {
+            if (src[id] == null) continue;
+            if (flip[id]) g.drawImage(src[id], sx[id] + sw[id], sy[id], -sw[id], sh[id], null);
+            else          g.drawImage(src[id], sx[id], sy[id], sw[id], sh[id], null);
+        }
+        g.dispose();
+    }
+
+    // Both directions of one kind; flipRight: art faces left, so the right-facing cell is mirrored
+    private static void put(BufferedImage[] src, boolean[] flip, int[] w, int[] h,
+                            byte kind, BufferedImage img, int width, int height, boolean flipRight) {
+        for (int r = 0; r < 2; r++) {
+            int id = actor(kind, r == 1);
+            src[id] = img; w[id] = width; h[id] = height;
+            flip[id] = (r == 1) == flipRight;
+        }
+    }
+
+    boolean has(int id) { return sw[id] > 0; }
+
+    // Cell geometry and the sheet as ARGB pixels, for SoftRaster's own blits
+    int cellX(int id) { return sx[id]; }
+    int cellY(int id) { return sy[id]; }
+    int cellW(int id) { return sw[id]; }
+    int cellH(int id) { return sh[id]; }
+    int sheetWidth()  { return sheet.getWidth(); }
+    int[] pixels()    { return sheet.getRGB(0, 0, sheet.getWidth(), sheet.getHeight(), null, 0, sheet.getWidth()); }
+
+    // Unscaled copy of the cell to (x, y)
+    void draw(Graphics g, int id, int x, int y) {
+        int w = sw[id], h = sh[id];
+        g.drawImage(sheet, x, y, x + w, y + h, sx[id], sy[id], sx[id] + w, sy[id] + h, null);
+    }
+}
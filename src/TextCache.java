@@ -0,0 +1,126 @@
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Text in one font and color, rasterized once into small translucent images
+ * and drawn with a blit. Numbers are put together from cached digits, so a
+ * changing score is a few blits with no String or layout behind it.
+ *
+ * Pieces are placed on the font's integer advances, the pen positions
+ * drawString uses with fractional metrics off, so a line drawn in pieces
+ * has the same pixels as the whole string. A cache is built for one screen
+ * and transform; under a scaling transform (HiDPI) images would be
+ * resampled, so it falls back to drawString there.
+ */
+final class TextCache {
+
+    // One rasterized string: image, offset of its top-left from the pen, advance
+    private static final class Text {
+        final Image image;
+        final int dx, dy, advance;
+        Text(Image image, int dx, int dy, int advance) {
+            this.image = image; this.dx = dx; this.dy = dy; this.advance = advance;
+        }
+    }
+
+    private final Font font;
+    private final Color color;
+    private final GraphicsConfiguration gc;
+    private final FontRenderContext frc;
+    private final Object textAntialias;
+    private final boolean direct;
+    private final FontMetrics metrics;
+    private final Map<String, Text> strings = new HashMap<>();
+    private final Text[] digits = new Text[10];
+
+    // like: the Graphics this cache will draw to (hints, transform, screen)
+    TextCache(Font font, Color color, Graphics2D like) {
+        this.font = font;
+        this.color = color;
+        this.gc = like.getDeviceConfiguration();
+        this.frc = like.getFontRenderContext();
+        this.textAntialias = like.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING);
+        this.direct = !like.getTransform().isIdentity();
+        this.metrics = like.getFontMetrics(font);
+    }
+
+    boolean matches(GraphicsConfiguration gc) { return this.gc == gc; }
+
+    int width(String s) { return text(s).advance; }
+
+    int height() { return metrics.getHeight(); }
+
+    // Draws s with its baseline at y; returns the pen position after it
+    int draw(Graphics2D g, String s, int x, int y) {
+        if (direct) {
+            g.setFont(font);
+            g.setColor(color);
+            g.drawString(s, x, y);
+            return x + metrics.stringWidth(s);
+        }
+        Text t = text(s);
+        if (t.image != null) g.drawImage(t.image, x + t.dx, y + t.dy, null);
+        return x + t.advance;
+    }
+
+    // Same for a number, from the digit images
+    int drawNumber(Graphics2D g, int n, int x, int y) {
+        if (n < 0) { x = draw(g, "-", x, y); n = -n; }
+        int p = 1;
+        while (p <= n / 10) p *= 10;
+        for (; p > 0; p /= 10) {
+            int d = (n / p) % 10;
+            if (digits[d] == null) digits[d] = text(String.valueOf((char) ('0' + d)));
+            if (direct) x = draw(g, String.valueOf((char) ('0' + d)), x, y);
+            else {
+                Text t = digits[d];
+                if (t.image != null) g.drawImage(t.image, x + t.dx, y + t.dy, null);
+                x += t.advance;
+            }
+        }
+        return x;
+    }
+
+    int numberWidth(int n) {
+        int w = n < 0 ? width("-") : 0;
+        n = Math.abs(n);
+        do {
+            int d = n % 10;
+            if (digits[d] == null) digits[d] = text(String.valueOf((char) ('0' + d)));
+            w += digits[d].advance;
+            n /= 10;
+        } while (n > 0);
+        return w;
+    }
+
+    private Text text(String s) {
+        Text t = strings.get(s);
+        if (t == null) {
+            t = render(s);
+            strings.put(s, t);
+        }
+        return t;
+    }
+
+    // Ink bounds from the glyph vector, so bearings that overhang the advance are kept
+    private Text render(String s) {
+        int advance = metrics.stringWidth(s);
+        GlyphVector gv = font.createGlyphVector(frc, s);
+        Rectangle ink = gv.getPixelBounds(frc, 0, 0);
+        if (direct || ink.isEmpty()) return new Text(null, 0, 0, advance);
+        BufferedImage img = (gc != null)
+                ? gc.createCompatibleImage(ink.width, ink.height, Transparency.TRANSLUCENT)
+                : new BufferedImage(ink.width, ink.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = img.createGraphics();
+        if (textAntialias != null) g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, textAntialias);
+        g.setFont(font);
+        g.setColor(color);
+        g.drawString(s, -ink.x, -ink.y);
+        g.dispose();
+        return new Text(img, ink.x, ink.y, advance);
+    }
+}
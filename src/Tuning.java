@@ -0,0 +1,74 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Overrides on a level table's spawn settings, for comparing difficulty
+ * variants without editing levels.txt. A spec is a comma-separated list of
+ * level.kind.key=value, where level is an id or * for all of them, kind is
+ * road, river or critter and key is any "spawn" key of levels.txt:
+ *
+ *   1.road.every=1.3              Level 1 traffic a little denser
+ *   3.road.chance=0.7,*.river.speed=0.9
+ *
+ * "default" (or an empty spec) changes nothing.
+ */
+final class Tuning {
+    static final Tuning DEFAULT = new Tuning("default", List.of());
+
+    private final String spec;
+    private final List<String[]> overrides;   // level, kind, key, value
+
+    private Tuning(String spec, List<String[]> overrides) {
+        this.spec = spec;
+        this.overrides = overrides;
+    }
+
+    static Tuning parse(String spec) {
+        if (spec.isEmpty() || spec.equals("default")) return DEFAULT;
+        List<String[]> list = new ArrayList<>();
+        Level.Spawn probe = new Level.Spawn();
+        for (String part : spec.split(",")) {
+            int eq = part.indexOf('=');
+            String[] name = eq > 0 ? part.substring(0, eq).trim().split("\\.") : new String[0];
+            if (name.length != 3) throw new IllegalArgumentException("expected level.kind.key=value: " + part);
+            String value = part.substring(eq + 1).trim();
+            if (!name[0].equals("*")) {
+                try { Integer.parseInt(name[0]); }
+                catch (NumberFormatException e) { throw new IllegalArgumentException("level id or *, not " + name[0]); }
+            }
+            if (!name[1].equals("road") && !name[1].equals("river") && !name[1].equals("critter"))
+                throw new IllegalArgumentException("lane kind road|river|critter, not " + name[1]);
+            try {
+                if (!probe.set(name[2], Double.parseDouble(value)))
+                    throw new IllegalArgumentException("unknown spawn key: " + name[2]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("bad value for " + part.substring(0, eq).trim() + ": " + value);
+            }
+            list.add(new String[] { name[0], name[1], name[2], value });
+        }
+        return new Tuning(spec, List.copyOf(list));
+    }
+
+    // Every level the spec names exists in set; run with the other argument checks
+    void check(LevelSet set) {
+        for (String[] o : overrides)
+            if (!o[0].equals("*")) set.get(Integer.parseInt(o[0]));   // unknown level: IllegalArgumentException
+    }
+
+    // The set with these overrides applied; DEFAULT hands back the set itself
+    LevelSet apply(LevelSet set) {
+        if (overrides.isEmpty()) return set;
+        check(set);
+        List<Level> levels = new ArrayList<>();
+        for (Level l : set.levels()) {
+            Level copy = l.copy();
+            for (String[] o : overrides)
+                if (o[0].equals("*") || Integer.parseInt(o[0]) == l.id)
+                    copy.spawn(o[1]).set(o[2], Double.parseDouble(o[3]));
+            levels.add(copy);
+        }
+        return new LevelSet(levels);
+    }
+
+    @Override public String toString() { return spec; }
+}
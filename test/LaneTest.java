@@ -0,0 +1,66 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Lane membership ring: joins in x order, growth, remap after compaction, settle
+class LaneTest {
+
+    @Test
+    void joinsKeepXOrderAtBothEndsAndInBetween() {
+        Lane lane = new Lane(0, 1.5, 30);
+        double[] x = { 50, 10, 90, 30, 5 };
+        lane.join(0, x);
+        lane.join(1, x);   // lower than all: goes in at the head
+        lane.join(2, x);   // tail
+        lane.join(3, x);   // between 1 and 0
+        lane.join(4, x);   // head again, wrapping the ring
+        assertArrayEquals(new int[] { 4, 1, 3, 0, 2 }, members(lane));
+    }
+
+    @Test
+    void ringGrowsPastEightAfterWrapping() {
+        Lane lane = new Lane(0, -1.5, 30);
+        int n = 40;
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i % 2 == 0 ? 1000 + i : -i;   // alternate tail and head joins
+            lane.join(i, x);
+        }
+        int[] m = members(lane);
+        assertEquals(n, m.length);
+        for (int i = 1; i < n; i++) assertTrue(x[m[i - 1]] <= x[m[i]], "member " + i);
+    }
+
+    @Test
+    void remapDropsTheDeadAndRenumbersInOrder() {
+        Lane lane = new Lane(0, 1.5, 30);
+        double[] x = { 10, 20, 30, 40, 5 };
+        for (int s = 0; s < x.length; s++) lane.join(s, x);   // order 4, 0, 1, 2, 3
+        // Slots 0 and 3 died; the store packed the rest down
+        int[] moved = { -1, 0, 1, -1, 2 };
+        lane.remap(moved);
+        assertArrayEquals(new int[] { 2, 0, 1 }, members(lane));
+    }
+
+    @Test
+    void settleRestoresOrderAfterAnOvertake() {
+        Lane lane = new Lane(0, 1.5, 30);
+        double[] x = { 10, 20, 30, 40 };
+        for (int s = 0; s < x.length; s++) lane.join(s, x);
+        lane.settle(x);
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, members(lane));
+        x[0] = 35;   // 0 passes 1 and 2
+        x[3] = 25;   // and 3 drops back behind 2
+        lane.settle(x);
+        assertArrayEquals(new int[] { 1, 3, 2, 0 }, members(lane));
+        x[1] = 25;   // tie with 3: the earlier member stays first
+        lane.settle(x);
+        assertArrayEquals(new int[] { 1, 3, 2, 0 }, members(lane));
+    }
+
+    private static int[] members(Lane lane) {
+        int[] m = new int[lane.members()];
+        for (int i = 0; i < m.length; i++) m[i] = lane.member(i);
+        return m;
+    }
+}
@@ -0,0 +1,132 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Level table: the bundled text, parse errors, the binary cache, deep copies
+class LevelSetTest {
+    private static final String ROWS = "-GWWW.RRRRRR..gggS";
+
+    @TempDir Path dir;
+    private String levelsProp, cacheProp;
+
+    @BeforeEach
+    void saveProperties() {
+        levelsProp = System.getProperty("frogger.levels");
+        cacheProp = System.getProperty("frogger.levels.cache");
+    }
+
+    @AfterEach
+    void restoreProperties() {
+        restore("frogger.levels", levelsProp);
+        restore("frogger.levels.cache", cacheProp);
+    }
+
+    @Test
+    void bundledTableChainsOneToFour() throws IOException {
+        String text;
+        try (InputStream in = LevelSet.class.getResourceAsStream("/" + LevelSet.RESOURCE)) {
+            assertNotNull(in, LevelSet.RESOURCE);
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        LevelSet set = LevelSet.parse(text, LevelSet.RESOURCE);
+        assertEquals(4, set.levels().length);
+        assertEquals(1, set.first);
+        assertEquals(4, set.highest());
+        for (int id = 1; id < 4; id++) assertEquals(id + 1, set.get(id).next);
+        assertEquals(0, set.get(4).next);
+        assertEquals(Level.WIN_KILLS, set.get(2).win);
+        assertEquals(30, set.get(2).winValue);
+        assertEquals(GameSimulation.ROWS, set.get(1).rows.length);
+        assertTrue(set.get(1).road.lanes > 0);
+        assertThrows(IllegalArgumentException.class, () -> set.get(5));
+    }
+
+    @Test
+    void parseErrorsNameTheSourceAndLine() {
+        assertError("t.txt:6: unknown keyword 'speed'", level(1, 0) + "speed 3\n");
+        assertError("t.txt:2: rows needs " + GameSimulation.ROWS + " characters", "level 1 A\nrows -GW\n");
+        assertError("t.txt:2: unknown row type 'x'", "level 1 A\nrows " + ROWS.replace('.', 'x') + "\n");
+        assertError("t.txt:1: 'rows' before the first level", "rows " + ROWS + "\n");
+        assertError("t.txt:7: lane row out of range: 0", level(1, 0) + "\nlane road 0 1.5 20\n");
+        assertError("t.txt: level 1: next level 2 is not defined", level(1, 2));
+        assertError("t.txt: level 1 defined twice", level(1, 0) + level(1, 0));
+        assertError("t.txt: level 1 has no rows", "level 1 A\n");
+    }
+
+    @Test
+    void cacheIsWrittenReusedAndRebuiltWhenStaleOrBroken() throws IOException {
+        Path text = dir.resolve("levels.txt"), cache = dir.resolve("levels.cache");
+        System.setProperty("frogger.levels", text.toString());
+        System.setProperty("frogger.levels.cache", cache.toString());
+
+        Files.writeString(text, level(1, 2) + level(2, 0));
+        LevelSet set = LevelSet.load();
+        assertEquals(2, set.levels().length);
+        assertTrue(Files.exists(cache));
+
+        // Same text: the cache is decoded, not rewritten
+        byte[] written = Files.readAllBytes(cache);
+        Files.setLastModifiedTime(cache, FileTime.fromMillis(0));
+        LevelSet again = LevelSet.load();
+        assertEquals(0, Files.getLastModifiedTime(cache).toMillis());
+        assertEquals("Level 2", again.get(2).title);
+        assertArrayEquals(set.get(1).rows, again.get(1).rows);
+        assertEquals(set.get(1).road.laneSpeed[0], again.get(1).road.laneSpeed[0]);
+
+        // Edited text: the old cache no longer matches
+        Files.writeString(text, level(1, 0));
+        assertEquals(1, LevelSet.load().levels().length);
+        assertFalse(Arrays.equals(written, Files.readAllBytes(cache)));
+
+        // Garbage cache: parsed from the text again and replaced
+        Files.write(cache, new byte[] { 1, 2, 3 });
+        assertEquals(1, LevelSet.load().levels().length);
+        assertTrue(Files.size(cache) > 3);
+        assertFalse(Files.exists(dir.resolve("levels.cache.tmp")));
+    }
+
+    @Test
+    void copySharesNoArrays() throws IOException {
+        Level l = LevelSet.parse(level(1, 0), "t.txt").get(1);
+        Level c = l.copy();
+        c.rows[1] = Level.WATER;
+        c.help[0] = "changed";
+        c.road.laneSpeed[0] = 9;
+        c.road.laneTicks[0] = 9;
+        assertEquals(Level.GOAL, l.rows[1]);
+        assertEquals("Level 1", l.help[0]);
+        assertEquals(1.5, l.road.laneSpeed[0]);
+        assertEquals(20, l.road.laneTicks[0]);
+        assertEquals(l.road.lanes, c.road.lanes);
+    }
+
+    // A small level with one road lane; next 0 ends the game
+    private static String level(int id, int next) {
+        return "level " + id + " Level " + id + "\n"
+             + "rows " + ROWS + "\n"
+             + (next == 0 ? "end 100\n" : "next " + next + "\n")
+             + "help Level " + id + "\n"
+             + "lane road 6 1.5 20\n";
+    }
+
+    private static void assertError(String message, String text) {
+        IOException e = assertThrows(IOException.class, () -> LevelSet.parse(text, "t.txt"));
+        assertEquals(message, e.getMessage());
+    }
+
+    private static void restore(String key, String value) {
+        if (value == null) System.clearProperty(key);
+        else System.setProperty(key, value);
+    }
+}
@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CSV import/export through the log, legacy rows, and compaction's keep rules
+class ScoreCsvTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @TempDir Path dir;
+
+    @Test
+    void exportThenImportKeepsEveryGame() throws IOException {
+        Path log = dir.resolve("scores.dat"), csv = dir.resolve("scores.csv"), back = dir.resolve("back.dat");
+        List<ScoreStore.Entry> games = List.of(
+                new ScoreStore.Entry("ann", 10, 1_700_000_000_123L),
+                new ScoreStore.Entry("smith, jo", 20, 1_700_000_060_000L),
+                new ScoreStore.Entry("say \"hi\"", 30, 1_700_000_120_000L),
+                new ScoreStore.Entry("two\nlines", 40, 1_700_000_180_000L),
+                new ScoreStore.Entry("zoë", 50, 1_700_000_240_000L));
+        try (ScoreStore s = ScoreStore.open(log)) { s.write(games); }
+
+        assertEquals(5, ScoreTool.exportCsv(log, csv));
+        long[] n = ScoreTool.importCsv(csv, back);
+        assertArrayEquals(new long[] { 5, 0 }, n);
+
+        List<ScoreStore.Entry> read = read(back);
+        assertEquals(games.size(), read.size());
+        for (int i = 0; i < games.size(); i++) {
+            assertEquals(games.get(i).player, read.get(i).player);
+            assertEquals(games.get(i).score, read.get(i).score);
+            assertEquals(games.get(i).at, read.get(i).at);
+        }
+    }
+
+    @Test
+    void legacyRowsTakeTheirTimeFromTheWhenColumn() throws IOException {
+        String text = "ann,10,2024-03-01 12:30\n"
+                    + "\n"
+                    + "bob,lots,2024-03-01 12:31\n"
+                    + "cy,30\n"
+                    + "eve,20,yesterday\n"
+                    + "fay,25,2024-13-01 12:00\n"
+                    + "dee, 40 ,2024-03-02 08:00,1709366400000\r\n";
+        try (ScoreCsv.Reader in = new ScoreCsv.Reader(new StringReader(text))) {
+            assertTrue(in.next());
+            assertEquals("ann", in.player());
+            assertEquals(10, in.score());
+            assertEquals(ScoreCsv.parseWhen("2024-03-01 12:30"), in.at());
+            assertTrue(in.next());
+            assertEquals("dee", in.player());
+            assertEquals(40, in.score());
+            assertEquals(1709366400000L, in.at());
+            assertFalse(in.next());
+            assertEquals(4, in.skipped());   // the blank line is not counted
+        }
+    }
+
+    @Test
+    void compactionKeepsTheTopTableEachPlayersBestAndTheWindow() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        long now = 1_700_000_000_000L, old = now - 100 * DAY;
+        List<ScoreStore.Entry> games = new ArrayList<>();
+        for (int i = 0; i < 600; i++) games.add(new ScoreStore.Entry("p" + (i % 3), 1000 + i, old + i));
+        games.add(new ScoreStore.Entry("dee", 5, old));          // only game of its player
+        games.add(new ScoreStore.Entry("dee", 4, old + 1));      // below dee's best 1
+        games.add(new ScoreStore.Entry("eve", 1, now - DAY));    // inside the window
+        try (ScoreStore s = ScoreStore.open(log)) { s.write(games); }
+
+        long[] n = ScoreTool.compact(log, 1, 30 * DAY, now);
+        assertEquals(603, n[0]);
+        assertEquals(ScoreStore.TOP_CAPACITY + 2, n[1]);
+
+        List<ScoreStore.Entry> kept = read(log);
+        assertEquals(n[1], kept.size());
+        assertTrue(kept.stream().anyMatch(e -> e.player.equals("dee") && e.score == 5));
+        assertTrue(kept.stream().noneMatch(e -> e.player.equals("dee") && e.score == 4));
+        assertTrue(kept.stream().anyMatch(e -> e.player.equals("eve")));
+        assertEquals(1000 + 600 - ScoreStore.TOP_CAPACITY,
+                kept.stream().filter(e -> e.player.startsWith("p")).mapToInt(e -> e.score).min().getAsInt());
+        assertFalse(Files.exists(dir.resolve("scores.dat.compact")));
+    }
+
+    private static List<ScoreStore.Entry> read(Path log) throws IOException {
+        List<ScoreStore.Entry> out = new ArrayList<>();
+        try (ScoreStore s = ScoreStore.open(log)) {
+            s.forEach((nm, len, score, at) -> out.add(new ScoreStore.Entry(new String(nm, 0, len, StandardCharsets.UTF_8), score, at)));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Scoreboard queries: board order, time windows, one row per player
+class ScoreIndexTest {
+
+    @Test
+    void topIsBoardOrderWithOlderGamesFirstOnTies() {
+        ScoreIndex ix = new ScoreIndex();
+        ix.add("ann", 10, 100);
+        ix.add("bob", 30, 200);
+        ix.add("cy", 10, 300);
+        ix.add("ann", 20, 400);
+        assertArrayEquals(new int[] { 1, 3, 0, 2 }, ix.top(Long.MIN_VALUE, 10));
+        assertArrayEquals(new int[] { 1, 3 }, ix.top(Long.MIN_VALUE, 2));
+        assertArrayEquals(new int[] { 3, 2 }, ix.top(300, 10));
+        assertArrayEquals(new int[0], ix.top(500, 10));
+    }
+
+    @Test
+    void bestPerPlayerOnlyCountsGamesInsideTheWindow() {
+        ScoreIndex ix = new ScoreIndex();
+        ix.add("ann", 90, 100);   // ann's best, but before the window
+        ix.add("ann", 20, 300);
+        ix.add("bob", 50, 310);
+        ix.add("ann", 40, 320);
+        ix.add("bob", 50, 330);   // tie: bob's older game stays
+        assertArrayEquals(new int[] { 0, 2 }, ix.bestPerPlayer(Long.MIN_VALUE, 10));
+        assertArrayEquals(new int[] { 2, 3 }, ix.bestPerPlayer(300, 10));
+        assertArrayEquals(new int[] { 2 }, ix.bestPerPlayer(300, 1));
+    }
+
+    @Test
+    void playerListsOnlyThatPlayersGames() {
+        ScoreIndex ix = new ScoreIndex();
+        ix.add("ann", 10, 100);
+        ix.add("bob", 30, 200);
+        ix.add("ann", 20, 300);
+        assertArrayEquals(new int[] { 2, 0 }, ix.player("ann", Long.MIN_VALUE, 10));
+        assertArrayEquals(new int[] { 2 }, ix.player("ann", 200, 10));
+        assertArrayEquals(new int[0], ix.player("nobody", Long.MIN_VALUE, 10));
+    }
+
+    // Bulk and one-by-one loads, out-of-order times, windows of every size, against a plain sort
+    @Test
+    void queriesMatchABruteForceBoard() {
+        Random r = new Random(5);
+        for (int trial = 0; trial < 100; trial++) {
+            ScoreIndex ix = new ScoreIndex();
+            int n = r.nextInt(3000);
+            boolean bulk = r.nextBoolean();
+            String[] name = new String[n];
+            int[] score = new int[n];
+            long[] at = new long[n];
+            if (bulk) ix.beginBulk();
+            for (int i = 0; i < n; i++) {
+                name[i] = "p" + r.nextInt(1 + r.nextInt(200));
+                score[i] = r.nextInt(50);
+                at[i] = i * 10L - (r.nextInt(10) == 0 ? r.nextInt(500) : 0);
+                ix.add(name[i], score[i], at[i]);
+            }
+            if (bulk) ix.endBulk();
+
+            long since = r.nextInt(4) == 0 ? Long.MIN_VALUE : r.nextInt(n * 10 + 10);
+            int limit = 1 + r.nextInt(r.nextBoolean() ? 20 : 5000);
+            Comparator<Integer> board = (a, b) -> score[a] != score[b] ? score[b] - score[a] : a - b;
+
+            List<Integer> games = new ArrayList<>();
+            for (int i = 0; i < n; i++) if (at[i] >= since) games.add(i);
+            games.sort(board);
+            assertArrayEquals(first(games, limit), ix.top(since, limit), "top, trial " + trial);
+
+            Map<String, Integer> best = new HashMap<>();
+            for (int i : games) best.putIfAbsent(name[i], i);
+            List<Integer> players = new ArrayList<>(best.values());
+            players.sort(board);
+            assertArrayEquals(first(players, limit), ix.bestPerPlayer(since, limit), "bestPerPlayer, trial " + trial);
+        }
+    }
+
+    private static int[] first(List<Integer> ids, int limit) {
+        return ids.subList(0, Math.min(limit, ids.size())).stream().mapToInt(Integer::intValue).toArray();
+    }
+}
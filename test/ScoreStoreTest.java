@@ -0,0 +1,118 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Score log: round trip, torn and corrupt tails, the read window, long names
+class ScoreStoreTest {
+    private static final int HEADER = 8, REC_HEAD = 8, FIXED_PAYLOAD = 14;
+
+    @TempDir Path dir;
+
+    @Test
+    void recordsSurviveReopenInLogOrder() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        try (ScoreStore s = ScoreStore.open(log)) {
+            s.append("ann", 10, 1000);
+            s.append("bob", 30, 2000);
+            s.append("cy", 20, 3000);
+        }
+        List<ScoreStore.Entry> all = read(log);
+        assertEquals(3, all.size());
+        assertEquals("bob", all.get(1).player);
+        assertEquals(30, all.get(1).score);
+        assertEquals(3000, all.get(2).at);
+        try (ScoreStore s = ScoreStore.open(log)) {
+            assertEquals(3, s.records());
+            assertEquals(List.of(30, 20, 10), s.top(3).stream().map(e -> e.score).toList());
+        }
+    }
+
+    @Test
+    void tornTailIsCutOffAndAppendsContinueAfterIt() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        try (ScoreStore s = ScoreStore.open(log)) {
+            s.append("ann", 10, 1000);
+            s.append("bob", 20, 2000);
+        }
+        long good = Files.size(log);
+        try (ScoreStore s = ScoreStore.open(log)) { s.append("cy", 30, 3000); }
+        // A crash in the middle of the third record's write
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.WRITE)) { ch.truncate(Files.size(log) - 3); }
+
+        try (ScoreStore s = ScoreStore.open(log)) {
+            assertEquals(2, s.records());
+            assertEquals(good, Files.size(log));
+            s.append("dee", 40, 4000);
+        }
+        assertEquals(List.of("ann", "bob", "dee"), names(read(log)));
+    }
+
+    @Test
+    void badChecksumEndsTheLog() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        try (ScoreStore s = ScoreStore.open(log)) {
+            s.append("ann", 10, 1000);
+            s.append("bob", 20, 2000);
+            s.append("cy", 30, 3000);
+        }
+        // Flip the score of the second record; its length still reads fine
+        long second = HEADER + REC_HEAD + FIXED_PAYLOAD + 3;
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(4).putInt(0, 99), second + REC_HEAD);
+        }
+        try (ScoreStore s = ScoreStore.open(log)) { assertEquals(1, s.records()); }
+        assertEquals(second, Files.size(log));
+    }
+
+    @Test
+    void recordsStraddlingTheReadWindowAreKept() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        int n = 120_000;   // about 3 MB: several 1 MB windows, records cut at each edge
+        try (ScoreStore s = ScoreStore.open(log)) {
+            List<ScoreStore.Entry> batch = new ArrayList<>();
+            for (int i = 0; i < n; i++) batch.add(new ScoreStore.Entry("player" + (i % 97), i, i));
+            s.write(batch);
+        }
+        List<ScoreStore.Entry> all = read(log);
+        assertEquals(n, all.size());
+        for (int i = 0; i < n; i++) assertEquals(i, all.get(i).score);
+    }
+
+    @Test
+    void longNamesAreCutBeforeASplitCharacter() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        String name = "a".repeat(1023) + "é";   // 1025 bytes: the é would straddle 1024
+        try (ScoreStore s = ScoreStore.open(log)) { s.append(name, 1, 1); }
+        assertEquals("a".repeat(1023), read(log).get(0).player);
+    }
+
+    @Test
+    void otherFilesAreRefused() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        Files.write(log, "name,score\nann,10\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> ScoreStore.open(log));
+    }
+
+    private static List<ScoreStore.Entry> read(Path log) throws IOException {
+        List<ScoreStore.Entry> out = new ArrayList<>();
+        try (ScoreStore s = ScoreStore.open(log)) {
+            s.forEach((nm, len, score, at) -> out.add(new ScoreStore.Entry(new String(nm, 0, len, StandardCharsets.UTF_8), score, at)));
+        }
+        return out;
+    }
+
+    private static List<String> names(List<ScoreStore.Entry> entries) {
+        return entries.stream().map(e -> e.player).toList();
+    }
+}
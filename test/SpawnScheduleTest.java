@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Spawn schedule: pops by tick, lane order on ties, due() at the boundary
+class SpawnScheduleTest {
+
+    @Test
+    void popsByTickThenLane() {
+        SpawnSchedule s = new SpawnSchedule();
+        s.add(30, 2);
+        s.add(10, 5);
+        s.add(30, 0);
+        s.add(10, 1);
+        s.add(20, 7);
+        assertEquals(5, s.size());
+        int[] lanes = new int[5];
+        for (int i = 0; i < lanes.length; i++) lanes[i] = s.pop();
+        assertArrayEquals(new int[] { 1, 5, 7, 0, 2 }, lanes);
+        assertEquals(0, s.size());
+    }
+
+    @Test
+    void dueOnlyOnceTheEarliestTickIsReached() {
+        SpawnSchedule s = new SpawnSchedule();
+        assertFalse(s.due(Integer.MAX_VALUE));
+        s.add(12, 3);
+        s.add(40, 1);
+        assertFalse(s.due(11));
+        assertTrue(s.due(12));
+        assertTrue(s.due(13));
+        assertEquals(3, s.pop());
+        assertFalse(s.due(39));
+        s.clear();
+        assertFalse(s.due(40));
+    }
+
+    // Random ticks and lanes past the initial capacity, with re-adds while popping, as the spawn pass does
+    @Test
+    void matchesASortedListUnderRandomUse() {
+        Random r = new Random(7);
+        SpawnSchedule s = new SpawnSchedule();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int tick = r.nextInt(1000), lane = r.nextInt(SpawnSchedule.MAX_LANES);
+            s.add(tick, lane);
+            expected.add((long) tick * SpawnSchedule.MAX_LANES + lane);
+        }
+        for (int step = 0; step < 5000; step++) {
+            expected.sort(null);
+            long e = expected.remove(0);
+            assertEquals((int) (e % SpawnSchedule.MAX_LANES), s.pop(), "step " + step);
+            int tick = (int) (e / SpawnSchedule.MAX_LANES) + 1 + r.nextInt(50);
+            int lane = r.nextInt(SpawnSchedule.MAX_LANES);
+            s.add(tick, lane);
+            expected.add((long) tick * SpawnSchedule.MAX_LANES + lane);
+        }
+        assertEquals(expected.size(), s.size());
+    }
+}